@@ -0,0 +1,16 @@
+#!/usr/bin/env bash
+# Runs the same /bookings/owner load against platform threads and against the virtual profile
+# and leaves both reports in target/ for comparison.
+set -euo pipefail
+
+cd "$(dirname "$0")/.."
+
+export LOAD_CLIENTS=${LOAD_CLIENTS:-2000}
+export LOAD_SECONDS=${LOAD_SECONDS:-60}
+export LOAD_ENDPOINTS=${LOAD_ENDPOINTS:-ownerBookings}
+
+APP_PROFILES=test,seed LOAD_OUTPUT=target/load-platform.json load/run-load.sh
+APP_PROFILES=test,seed,virtual LOAD_OUTPUT=target/load-virtual.json load/run-load.sh
+
+echo "platform: $(cat target/load-platform.json)"
+echo "virtual:  $(cat target/load-virtual.json)"
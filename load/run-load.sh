@@ -0,0 +1,55 @@
+#!/usr/bin/env bash
+# Seeds an in-memory H2 instance with synthetic data and runs the HTTP load against it.
+# Volumes and load shape can be overridden through the environment, for example:
+#   SEED_BOOKINGS=200000 LOAD_CLIENTS=128 LOAD_SECONDS=120 load/run-load.sh
+set -euo pipefail
+
+cd "$(dirname "$0")/.."
+
+SEED_USERS=${SEED_USERS:-10000}
+SEED_ITEMS=${SEED_ITEMS:-50000}
+SEED_BOOKINGS=${SEED_BOOKINGS:-1000000}
+SEED_COMMENTS=${SEED_COMMENTS:-100000}
+SEED_SKEW=${SEED_SKEW:-2.0}
+LOAD_CLIENTS=${LOAD_CLIENTS:-64}
+LOAD_SECONDS=${LOAD_SECONDS:-60}
+LOAD_ENDPOINTS=${LOAD_ENDPOINTS:-items,itemSearch,bookings,ownerBookings,user}
+APP_PROFILES=${APP_PROFILES:-test,seed}
+APP_JVM_ARGS=${APP_JVM_ARGS:--Xmx4g}
+LOAD_OUTPUT=${LOAD_OUTPUT:-target/load-result.json}
+PORT=${PORT:-8080}
+
+mvn -B -q -Pbenchmark -DskipTests test-compile
+
+mvn -B -q spring-boot:run \
+  -Dspring-boot.run.profiles="$APP_PROFILES" \
+  -Dspring-boot.run.jvmArguments="$APP_JVM_ARGS" \
+  -Dspring-boot.run.arguments="--server.port=$PORT --spring.jpa.show-sql=false \
+--logging.level.ru.practicum.shareit=warn --logging.level.org.springframework.transaction.interceptor=warn \
+--shareit.seed.users=$SEED_USERS --shareit.seed.items=$SEED_ITEMS --shareit.seed.bookings=$SEED_BOOKINGS \
+--shareit.seed.comments=$SEED_COMMENTS --shareit.seed.skew=$SEED_SKEW" &
+APP_PID=$!
+trap 'kill $APP_PID 2>/dev/null || true' EXIT
+
+# Readiness only turns UP once the seeder and the startup index rebuilds have finished;
+# plain /actuator/health is UP as soon as the web server listens.
+echo "Waiting for the application to seed and start on port $PORT..."
+until curl -sf "http://localhost:$PORT/actuator/health/readiness" > /dev/null; do
+  if ! kill -0 $APP_PID 2>/dev/null; then
+    echo "Application exited before becoming ready" >&2
+    exit 1
+  fi
+  sleep 2
+done
+
+mvn -B -q -Pbenchmark exec:java \
+  -Dexec.mainClass=ru.practicum.shareit.load.LoadRunner \
+  -Dexec.classpathScope=test \
+  -Dload.url="http://localhost:$PORT" \
+  -Dload.clients="$LOAD_CLIENTS" \
+  -Dload.seconds="$LOAD_SECONDS" \
+  -Dload.users="$SEED_USERS" \
+  -Dload.items="$SEED_ITEMS" \
+  -Dload.skew="$SEED_SKEW" \
+  -Dload.endpoints="$LOAD_ENDPOINTS" \
+  -Dload.output="$LOAD_OUTPUT"
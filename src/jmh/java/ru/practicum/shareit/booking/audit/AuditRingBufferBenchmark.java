@@ -0,0 +1,64 @@
+package ru.practicum.shareit.booking.audit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.practicum.shareit.booking.model.BookingStatus;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of publishing an audit event from four request threads while one thread drains the
+ * buffer, which is what a request pays for auditing. {@code offer} returns whether the event
+ * was accepted, so a drop rate shows up as a faster but useless result.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+public class AuditRingBufferBenchmark {
+
+    private AuditRingBuffer ringBuffer;
+    private Thread consumer;
+    private volatile boolean running;
+
+    @Setup
+    public void setUp() {
+        ringBuffer = new AuditRingBuffer(65536);
+        running = true;
+        consumer = Thread.ofPlatform().daemon().start(() -> {
+            ByteBuffer buffer = ByteBuffer.allocate(BookingAuditEvent.SIZE * 1024);
+            while (running) {
+                if (!buffer.hasRemaining()) {
+                    buffer.clear();
+                }
+                ringBuffer.pollTo(buffer);
+            }
+        });
+    }
+
+    @TearDown
+    public void tearDown() throws InterruptedException {
+        running = false;
+        consumer.join();
+    }
+
+    @Benchmark
+    public boolean offer() {
+        return ringBuffer.offer(BookingAuditEvent.Type.STATUS_CHANGED, BookingStatus.APPROVED,
+                System.currentTimeMillis(), 1L, 2L, 3L, 4L);
+    }
+}
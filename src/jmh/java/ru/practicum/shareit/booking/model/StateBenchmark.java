@@ -0,0 +1,40 @@
+package ru.practicum.shareit.booking.model;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.practicum.shareit.erorr.exception.ValidationException;
+
+import java.util.concurrent.TimeUnit;
+
+@org.openjdk.jmh.annotations.State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StateBenchmark {
+
+    @Param({"ALL", "current", "Rejected"})
+    private String state;
+
+    @Benchmark
+    public State fromString() {
+        return State.fromString(state);
+    }
+
+    @Benchmark
+    public Object fromStringUnknown() {
+        try {
+            return State.fromString("SOMETIMES");
+        } catch (ValidationException e) {
+            return e;
+        }
+    }
+}
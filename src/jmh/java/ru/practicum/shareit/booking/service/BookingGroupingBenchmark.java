@@ -0,0 +1,62 @@
+package ru.practicum.shareit.booking.service;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BookingGroupingBenchmark {
+
+    @Param({"10", "100", "1000"})
+    private int items;
+
+    @Param({"2", "20"})
+    private int bookingsPerItem;
+
+    private List<Booking> bookings;
+
+    @Setup
+    public void setUp() {
+        User booker = new User();
+        booker.setId(1L);
+        LocalDateTime now = LocalDateTime.now();
+        bookings = new ArrayList<>(items * bookingsPerItem);
+        long id = 0;
+        for (int b = 0; b < bookingsPerItem; b++) {
+            for (long i = 0; i < items; i++) {
+                Item item = new Item();
+                item.setId(i);
+                bookings.add(new Booking(id++, now.plusDays(b), now.plusDays(b + 1), item, booker,
+                        BookingStatus.APPROVED, 0L));
+            }
+        }
+    }
+
+    @Benchmark
+    public Map<Long, List<Booking>> groupByItemId() {
+        return BookingServiceImpl.groupByItemId(bookings);
+    }
+}
@@ -0,0 +1,131 @@
+package ru.practicum.shareit.booking.service;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.orm.jpa.SharedEntityManagerCreator;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.ShareItApp;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingFilter;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.mapper.BookingMapper;
+import ru.practicum.shareit.util.KeysetCursor;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One page of a booker's bookings read as managed entities and mapped with MapStruct, against
+ * the constructor projection used by the service. Run with {@code -prof gc} and compare
+ * {@code gc.alloc.rate.norm}, the bytes allocated per page.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BookingReadBenchmark {
+
+    private static final long OWNER_ID = 1L;
+    private static final long BOOKER_ID = 2L;
+    private static final int ITEMS = 50;
+    private static final int BOOKINGS = 2_000;
+
+    @Param({"20", "200"})
+    private int size;
+
+    private ConfigurableApplicationContext context;
+    private TransactionTemplate readOnly;
+    private EntityManager entityManager;
+    private BookingRepository bookingRepository;
+    private BookingMapper bookingMapper;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(ShareItApp.class)
+                .profiles("test")
+                .web(WebApplicationType.NONE)
+                .properties("spring.jpa.show-sql=false", "logging.level.ru.practicum.shareit=warn",
+                        "logging.level.org.springframework.transaction.interceptor=warn")
+                .run();
+        readOnly = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        readOnly.setReadOnly(true);
+        entityManager = SharedEntityManagerCreator.createSharedEntityManager(
+                context.getBean(EntityManagerFactory.class));
+        bookingRepository = context.getBean(BookingRepository.class);
+        bookingMapper = context.getBean(BookingMapper.class);
+        seed(context.getBean(JdbcTemplate.class));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<BookingDto> entities() {
+        return readOnly.execute(status -> entityManager.createQuery("""
+                        select b from Booking b
+                        join fetch b.item
+                        join fetch b.booker
+                        where b.booker.id = :bookerId
+                        order by b.start desc, b.id desc
+                        """, Booking.class)
+                .setParameter("bookerId", BOOKER_ID)
+                .setMaxResults(size)
+                .getResultStream()
+                .map(bookingMapper::mapToBookingDto)
+                .toList());
+    }
+
+    @Benchmark
+    public List<BookingDto> projections() {
+        return readOnly.execute(status -> bookingRepository.findBookerBookings(BOOKER_ID,
+                BookingFilter.of(ru.practicum.shareit.booking.model.State.ALL, LocalDateTime.now()),
+                KeysetCursor.FIRST, PageRequest.of(0, size)));
+    }
+
+    private void seed(JdbcTemplate jdbcTemplate) {
+        jdbcTemplate.update("insert into users (user_id, name, email) values (?, ?, ?)",
+                OWNER_ID, "owner", "owner@example.com");
+        jdbcTemplate.update("insert into users (user_id, name, email) values (?, ?, ?)",
+                BOOKER_ID, "booker", "booker@example.com");
+        for (long itemId = 1; itemId <= ITEMS; itemId++) {
+            jdbcTemplate.update("insert into items (item_id, name, description, available, owner_id) "
+                    + "values (?, ?, ?, true, ?)", itemId, "item" + itemId, "description", OWNER_ID);
+        }
+        LocalDateTime now = LocalDateTime.now();
+        List<Object[]> rows = new ArrayList<>(BOOKINGS);
+        for (int i = 0; i < BOOKINGS; i++) {
+            LocalDateTime start = now.minusDays(i);
+            rows.add(new Object[]{Timestamp.valueOf(start), Timestamp.valueOf(start.plusHours(12)),
+                    1 + i % ITEMS, BOOKER_ID, "APPROVED"});
+        }
+        jdbcTemplate.batchUpdate("insert into booking (start_date, end_date, item_id, booker_id, status) "
+                + "values (?, ?, ?, ?, ?)", rows);
+    }
+}
@@ -0,0 +1,81 @@
+package ru.practicum.shareit.item.search;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency of one ranked search page over 1M indexed items, for a query matching most of them
+ * and for a narrow one. Top-k selection keeps the cost of the first page close to a scan
+ * of the matches, without sorting them.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class ItemSearchBenchmark {
+
+    private static final int ITEMS = 1_000_000;
+    private static final String[] WORDS = {"drill", "saw", "ladder", "hammer", "tent", "kayak", "cordless",
+        "electric", "folding", "camping", "garden", "power", "drilling", "sawhorse", "hammock"};
+
+    @Param({"drill", "kayak paddle"})
+    private String query;
+
+    @Param({"20", "100"})
+    private int size;
+
+    private ItemSearchIndex index;
+
+    @Setup
+    public void setUp() {
+        index = new ItemSearchIndex(null, new ItemSearchProperties(true, false, 20, 100, 10000),
+                new SimpleMeterRegistry());
+        Random random = new Random(42);
+        List<IndexedItem> items = new ArrayList<>(ITEMS);
+        for (long id = 1; id <= ITEMS; id++) {
+            items.add(new IndexedItem(id, phrase(random, 2), phrase(random, 8), null, id % 10_000));
+        }
+        index.build(items);
+    }
+
+    @Benchmark
+    public SearchPage firstPage() {
+        return index.search(query, 0, size, null);
+    }
+
+    @Benchmark
+    public SearchPage tenthPage() {
+        return index.search(query, 9 * size, size, null);
+    }
+
+    private static String phrase(Random random, int words) {
+        StringBuilder phrase = new StringBuilder();
+        for (int i = 0; i < words; i++) {
+            if (i > 0) {
+                phrase.append(' ');
+            }
+            phrase.append(WORDS[random.nextInt(WORDS.length)]);
+        }
+        if (random.nextInt(1000) == 0) {
+            phrase.append(" kayak paddle");
+        }
+        return phrase.toString();
+    }
+}
@@ -0,0 +1,65 @@
+package ru.practicum.shareit.item.service;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.practicum.shareit.booking.dto.BookingDtoForItem;
+import ru.practicum.shareit.booking.model.BookingStatus;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FindBookingBenchmark {
+
+    @Param({"2", "50", "1000"})
+    private int size;
+
+    private List<BookingDtoForItem> bookings;
+    private LocalDateTime now;
+
+    @Setup
+    public void setUp() {
+        now = LocalDateTime.now();
+        Random random = new Random(42);
+        bookings = new ArrayList<>(size);
+        for (long i = 0; i < size; i++) {
+            LocalDateTime start = now.plusHours(random.nextInt(24 * 365) - 24 * 180);
+            bookings.add(BookingDtoForItem.builder()
+                    .id(i)
+                    .start(start)
+                    .end(start.plusHours(1 + random.nextInt(72)))
+                    .bookerId(i % 7)
+                    .status(BookingStatus.APPROVED)
+                    .build());
+        }
+        Collections.shuffle(bookings, random);
+    }
+
+    @Benchmark
+    public BookingDtoForItem lastBooking() {
+        return ItemServiceImpl.findBooking(bookings, true, now);
+    }
+
+    @Benchmark
+    public BookingDtoForItem nextBooking() {
+        return ItemServiceImpl.findBooking(bookings, false, now);
+    }
+}
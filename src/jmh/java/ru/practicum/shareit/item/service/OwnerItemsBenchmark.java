@@ -0,0 +1,93 @@
+package ru.practicum.shareit.item.service;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.ShareItApp;
+import ru.practicum.shareit.item.dto.ItemWithBookingsDto;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency of GET /items for one owner as the booking history of each item grows.
+ * With the last/next aggregation done in the database it should stay flat.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class OwnerItemsBenchmark {
+
+    private static final long OWNER_ID = 1L;
+    private static final long BOOKER_ID = 2L;
+    private static final int ITEMS = 20;
+
+    @Param({"10", "1000", "10000"})
+    private int bookingsPerItem;
+
+    private ConfigurableApplicationContext context;
+    private ItemService itemService;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(ShareItApp.class)
+                .profiles("test")
+                .web(WebApplicationType.NONE)
+                .properties("spring.jpa.show-sql=false", "logging.level.ru.practicum.shareit=warn",
+                        "logging.level.org.springframework.transaction.interceptor=warn")
+                .run();
+        itemService = context.getBean(ItemService.class);
+        seed(context.getBean(JdbcTemplate.class));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<ItemWithBookingsDto> getAllOwnerItems() {
+        return itemService.getAllOwnerItems(OWNER_ID);
+    }
+
+    private void seed(JdbcTemplate jdbcTemplate) {
+        jdbcTemplate.update("insert into users (user_id, name, email) values (?, ?, ?)",
+                OWNER_ID, "owner", "owner@example.com");
+        jdbcTemplate.update("insert into users (user_id, name, email) values (?, ?, ?)",
+                BOOKER_ID, "booker", "booker@example.com");
+        LocalDateTime now = LocalDateTime.now();
+        for (long itemId = 1; itemId <= ITEMS; itemId++) {
+            jdbcTemplate.update("insert into items (item_id, name, description, available, owner_id) "
+                    + "values (?, ?, ?, true, ?)", itemId, "item" + itemId, "description", OWNER_ID);
+            List<Object[]> rows = new ArrayList<>(bookingsPerItem);
+            for (int i = 0; i < bookingsPerItem; i++) {
+                // Most of the history is in the past, a tail is still ahead.
+                LocalDateTime start = now.minusDays(bookingsPerItem - i).plusDays(bookingsPerItem / 10);
+                rows.add(new Object[]{Timestamp.valueOf(start), Timestamp.valueOf(start.plusHours(12)), itemId,
+                        BOOKER_ID, "APPROVED"});
+            }
+            jdbcTemplate.batchUpdate("insert into booking (start_date, end_date, item_id, booker_id, status) "
+                    + "values (?, ?, ?, ?, ?)", rows);
+        }
+    }
+}
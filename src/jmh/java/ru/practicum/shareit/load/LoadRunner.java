@@ -0,0 +1,198 @@
+package ru.practicum.shareit.load;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.LongFunction;
+import java.util.stream.Collectors;
+
+/**
+ * Closed-loop HTTP load against a running ShareIt instance. Every client picks an endpoint
+ * round-robin and a user id with the same skew as the seeded data, then the runner prints
+ * p50/p99 latency and throughput per endpoint and writes them as JSON.
+ *
+ * <p>System properties: {@code load.url}, {@code load.clients}, {@code load.seconds},
+ * {@code load.users}, {@code load.items}, {@code load.skew}, {@code load.endpoints},
+ * {@code load.output}.
+ */
+public final class LoadRunner {
+
+    private static final String USER_HEADER = "X-Sharer-User-Id";
+
+    private final HttpClient client = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(5))
+            .executor(Executors.newVirtualThreadPerTaskExecutor())
+            .build();
+    private final String url = System.getProperty("load.url", "http://localhost:8080");
+    private final int clients = Integer.getInteger("load.clients", 64);
+    private final int seconds = Integer.getInteger("load.seconds", 60);
+    private final int users = Integer.getInteger("load.users", 10_000);
+    private final int items = Integer.getInteger("load.items", 50_000);
+    private final double skew = Double.parseDouble(System.getProperty("load.skew", "2.0"));
+    private final Path output = Path.of(System.getProperty("load.output", "target/load-result.json"));
+    private final Map<String, LongFunction<HttpRequest>> endpoints = endpoints(
+            System.getProperty("load.endpoints", "items,itemSearch,bookings,ownerBookings,user"));
+
+    private LoadRunner() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        new LoadRunner().run();
+    }
+
+    private void run() throws Exception {
+        long deadline = System.nanoTime() + Duration.ofSeconds(seconds).toNanos();
+        List<Future<Recorder>> futures = new ArrayList<>(clients);
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < clients; i++) {
+                int offset = i;
+                futures.add(executor.submit(() -> runClient(offset, deadline)));
+            }
+        }
+        Recorder total = new Recorder(endpoints.keySet());
+        for (Future<Recorder> future : futures) {
+            total.merge(future.get());
+        }
+        report(total);
+    }
+
+    private Recorder runClient(int offset, long deadline) {
+        Recorder recorder = new Recorder(endpoints.keySet());
+        List<String> names = new ArrayList<>(endpoints.keySet());
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (int i = offset; System.nanoTime() < deadline; i++) {
+            String name = names.get(i % names.size());
+            long userId = 1 + (long) (users * Math.pow(random.nextDouble(), skew));
+            HttpRequest request = endpoints.get(name).apply(userId);
+            long started = System.nanoTime();
+            try {
+                HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                recorder.record(name, System.nanoTime() - started, response.statusCode() < 500);
+            } catch (IOException e) {
+                recorder.record(name, System.nanoTime() - started, false);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        return recorder;
+    }
+
+    private Map<String, LongFunction<HttpRequest>> endpoints(String enabled) {
+        Map<String, LongFunction<HttpRequest>> all = new LinkedHashMap<>();
+        all.put("items", userId -> get("/items", userId));
+        all.put("itemSearch", userId -> get("/items/search?text=drill", userId));
+        all.put("bookings", userId -> get("/bookings?state=ALL&size=20", userId));
+        all.put("ownerBookings", userId -> get("/bookings/owner?state=ALL&size=20", userId));
+        all.put("user", userId -> get("/users/" + userId, userId));
+        all.put("item", userId -> get("/items/" + (1 + userId * 7 % items), userId));
+        List<String> names = Arrays.asList(enabled.split(","));
+        all.keySet().retainAll(names);
+        return all;
+    }
+
+    private HttpRequest get(String path, long userId) {
+        return HttpRequest.newBuilder(URI.create(url + path))
+                .header(USER_HEADER, String.valueOf(userId))
+                .timeout(Duration.ofSeconds(30))
+                .GET()
+                .build();
+    }
+
+    private void report(Recorder total) throws IOException {
+        System.out.printf("%-14s %10s %10s %10s %10s %8s%n", "endpoint", "requests", "rps", "p50 ms", "p99 ms",
+                "errors");
+        List<String> json = new ArrayList<>();
+        for (String name : endpoints.keySet()) {
+            long[] latencies = total.latencies(name);
+            Arrays.sort(latencies);
+            double rps = (double) latencies.length / seconds;
+            double p50 = percentile(latencies, 0.50);
+            double p99 = percentile(latencies, 0.99);
+            long errors = total.errors(name);
+            System.out.printf("%-14s %10d %10.1f %10.2f %10.2f %8d%n", name, latencies.length, rps, p50, p99,
+                    errors);
+            json.add(String.format("{\"endpoint\":\"%s\",\"requests\":%d,\"rps\":%.1f,\"p50Ms\":%.3f,"
+                    + "\"p99Ms\":%.3f,\"errors\":%d,\"clients\":%d}", name, latencies.length, rps, p50, p99,
+                    errors, clients));
+        }
+        Files.createDirectories(output.toAbsolutePath().getParent());
+        Files.writeString(output, json.stream().collect(Collectors.joining(",\n  ", "[\n  ", "\n]\n")));
+    }
+
+    private static double percentile(long[] sorted, double quantile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(quantile * sorted.length) - 1;
+        return sorted[Math.max(index, 0)] / 1_000_000.0;
+    }
+
+    private static final class Recorder {
+        private final Map<String, LongList> latencies = new LinkedHashMap<>();
+        private final Map<String, long[]> errors = new LinkedHashMap<>();
+
+        private Recorder(Iterable<String> names) {
+            names.forEach(name -> {
+                latencies.put(name, new LongList());
+                errors.put(name, new long[1]);
+            });
+        }
+
+        private void record(String name, long nanos, boolean success) {
+            latencies.get(name).add(nanos);
+            if (!success) {
+                errors.get(name)[0]++;
+            }
+        }
+
+        private void merge(Recorder other) {
+            other.latencies.forEach((name, values) -> latencies.get(name).addAll(values));
+            other.errors.forEach((name, count) -> errors.get(name)[0] += count[0]);
+        }
+
+        private long[] latencies(String name) {
+            return latencies.get(name).toArray();
+        }
+
+        private long errors(String name) {
+            return errors.get(name)[0];
+        }
+    }
+
+    private static final class LongList {
+        private long[] values = new long[1024];
+        private int size;
+
+        private void add(long value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        private void addAll(LongList other) {
+            for (int i = 0; i < other.size; i++) {
+                add(other.values[i]);
+            }
+        }
+
+        private long[] toArray() {
+            return Arrays.copyOf(values, size);
+        }
+    }
+}
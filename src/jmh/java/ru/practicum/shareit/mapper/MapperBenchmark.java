@@ -0,0 +1,98 @@
+package ru.practicum.shareit.mapper;
+
+import org.mapstruct.factory.Mappers;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemWithBookingsDto;
+import ru.practicum.shareit.item.model.Comment;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MapperBenchmark {
+
+    @Param({"10", "100", "1000"})
+    private int size;
+
+    private final BookingMapper bookingMapper = Mappers.getMapper(BookingMapper.class);
+    private final CommentMapper commentMapper = Mappers.getMapper(CommentMapper.class);
+    private final ItemMapper itemMapper = Mappers.getMapper(ItemMapper.class);
+
+    private List<Booking> bookings;
+    private List<Comment> comments;
+    private List<Item> items;
+
+    @Setup
+    public void setUp() {
+        User owner = user(1L);
+        User booker = user(2L);
+        LocalDateTime now = LocalDateTime.now();
+        bookings = new ArrayList<>(size);
+        comments = new ArrayList<>(size);
+        items = new ArrayList<>(size);
+        for (long i = 0; i < size; i++) {
+            Item item = new Item();
+            item.setId(i);
+            item.setName("Drill " + i);
+            item.setDescription("Cordless drill with two batteries, item " + i);
+            item.setAvailable(true);
+            item.setOwner(owner);
+            items.add(item);
+            bookings.add(new Booking(i, now.plusDays(i), now.plusDays(i + 1), item, booker, BookingStatus.APPROVED,
+                    0L));
+            Comment comment = new Comment();
+            comment.setId(i);
+            comment.setItem(item);
+            comment.setAuthor(booker);
+            comment.setText("Works fine, returned on time " + i);
+            comment.setCreated(now.minusDays(i));
+            comments.add(comment);
+        }
+    }
+
+    @Benchmark
+    public List<BookingDto> mapToBookingDto() {
+        return bookings.stream().map(bookingMapper::mapToBookingDto).toList();
+    }
+
+    @Benchmark
+    public List<CommentDto> mapToCommentDto() {
+        return comments.stream().map(commentMapper::mapToCommentDto).toList();
+    }
+
+    @Benchmark
+    public List<ItemWithBookingsDto> mapToItemWithBookingsDto() {
+        return items.stream().map(itemMapper::mapToItemWithBookingsDto).toList();
+    }
+
+    private static User user(long id) {
+        User user = new User();
+        user.setId(id);
+        user.setName("user" + id);
+        user.setEmail("user" + id + "@example.com");
+        return user;
+    }
+}
@@ -0,0 +1,77 @@
+package ru.practicum.shareit.metrics;
+
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.config.MeterFilter;
+import io.micrometer.core.instrument.distribution.DistributionStatisticConfig;
+import io.micrometer.prometheusmetrics.PrometheusConfig;
+import io.micrometer.prometheusmetrics.PrometheusMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of wrapping a service call in {@link ServiceMetrics} with the Prometheus registry and
+ * percentile histograms enabled, as in production. Compare against {@code baseline}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+public class ServiceMetricsBenchmark {
+
+    private static final List<Integer> RESULT = List.of(1, 2, 3, 4, 5);
+
+    private ServiceMetrics serviceMetrics;
+
+    @Setup
+    public void setUp() {
+        PrometheusMeterRegistry registry = new PrometheusMeterRegistry(PrometheusConfig.DEFAULT);
+        registry.config().meterFilter(new MeterFilter() {
+            @Override
+            public DistributionStatisticConfig configure(Meter.Id id, DistributionStatisticConfig config) {
+                return DistributionStatisticConfig.builder()
+                        .percentilesHistogram(true)
+                        .build()
+                        .merge(config);
+            }
+        });
+        serviceMetrics = new ServiceMetrics(registry);
+    }
+
+    @Benchmark
+    public List<Integer> baseline(Blackhole blackhole) {
+        return call(blackhole);
+    }
+
+    @Benchmark
+    public List<Integer> record(Blackhole blackhole) {
+        return serviceMetrics.record("booking.get", () -> call(blackhole));
+    }
+
+    @Benchmark
+    public List<Integer> recordResults(Blackhole blackhole) {
+        return serviceMetrics.recordResults("booking.list.owner", ru.practicum.shareit.booking.model.State.WAITING,
+                () -> call(blackhole));
+    }
+
+    private static List<Integer> call(Blackhole blackhole) {
+        Blackhole.consumeCPU(64);
+        blackhole.consume(RESULT);
+        return RESULT;
+    }
+}
@@ -0,0 +1,62 @@
+package ru.practicum.shareit.booking.audit;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Naming and header layout of the audit files: magic, format version and file index,
+ * followed by fixed-size {@link BookingAuditEvent} records.
+ */
+final class AuditLogFiles {
+
+    static final int HEADER_SIZE = 16;
+    private static final int MAGIC = 0x53484155;
+    private static final int VERSION = 1;
+    private static final String PREFIX = "bookings-";
+    private static final String SUFFIX = ".audit";
+
+    private AuditLogFiles() {
+    }
+
+    static String name(long index) {
+        return String.format("%s%010d%s", PREFIX, index, SUFFIX);
+    }
+
+    /**
+     * Lists the audit files in the directory, oldest first.
+     */
+    static List<Path> list(Path directory) throws IOException {
+        if (!Files.isDirectory(directory)) {
+            return List.of();
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(file -> {
+                        String name = file.getFileName().toString();
+                        return name.startsWith(PREFIX) && name.endsWith(SUFFIX);
+                    })
+                    .sorted()
+                    .toList();
+        }
+    }
+
+    static void writeHeader(ByteBuffer buffer, long index) {
+        buffer.putInt(MAGIC);
+        buffer.putInt(VERSION);
+        buffer.putLong(index);
+    }
+
+    static long readHeader(ByteBuffer buffer, Path file) throws IOException {
+        if (buffer.remaining() < HEADER_SIZE || buffer.getInt() != MAGIC) {
+            throw new IOException(file + " is not a booking audit file");
+        }
+        int version = buffer.getInt();
+        if (version != VERSION) {
+            throw new IOException(file + " has unsupported audit format version " + version);
+        }
+        return buffer.getLong();
+    }
+}
@@ -0,0 +1,48 @@
+package ru.practicum.shareit.booking.audit;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.function.Consumer;
+
+/**
+ * Replays the booking audit log in the order it was written. Run it with the audit directory
+ * as the only argument to print one line per event:
+ *
+ * <pre>java -cp shareit.jar ru.practicum.shareit.booking.audit.AuditLogReader audit</pre>
+ */
+public final class AuditLogReader {
+
+    private AuditLogReader() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        Path directory = Path.of(args.length > 0 ? args[0] : "audit");
+        long events = replay(directory, event -> System.out.printf("%s %s booking=%d item=%d booker=%d actor=%d "
+                        + "status=%s%n", Instant.ofEpochMilli(event.timestamp()), event.type(), event.bookingId(),
+                event.itemId(), event.bookerId(), event.actorId(), event.status()));
+        System.err.printf("%d events in %s%n", events, directory.toAbsolutePath());
+    }
+
+    /**
+     * Hands every event in the directory to the consumer and returns how many there were.
+     */
+    public static long replay(Path directory, Consumer<BookingAuditEvent> consumer) throws IOException {
+        long events = 0;
+        for (Path file : AuditLogFiles.list(directory)) {
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+                MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+                AuditLogFiles.readHeader(buffer, file);
+                BookingAuditEvent event;
+                while ((event = BookingAuditEvent.readFrom(buffer)) != null) {
+                    consumer.accept(event);
+                    events++;
+                }
+            }
+        }
+        return events;
+    }
+}
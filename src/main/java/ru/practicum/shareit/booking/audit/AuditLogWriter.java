@@ -0,0 +1,111 @@
+package ru.practicum.shareit.booking.audit;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * Appends events to memory-mapped files of a fixed size in the audit directory. A full file
+ * is forced to disk and the writer moves on to the next one; on startup it continues after
+ * the last event of the newest file. Holds an exclusive lock on the directory while open, so a
+ * second writer, in this or another process, fails instead of interleaving events.
+ * Not thread-safe, owned by the audit writer thread.
+ */
+final class AuditLogWriter implements Closeable {
+
+    private static final String LOCK_FILE = "audit.lock";
+
+    private final Path directory;
+    private final long fileSize;
+    private final FileChannel lockChannel;
+    private FileChannel channel;
+    private MappedByteBuffer buffer;
+    private long fileIndex;
+
+    AuditLogWriter(Path directory, long fileSize) throws IOException {
+        this.directory = directory;
+        this.fileSize = AuditLogFiles.HEADER_SIZE
+                + Math.max(1, (fileSize - AuditLogFiles.HEADER_SIZE) / BookingAuditEvent.SIZE)
+                * BookingAuditEvent.SIZE;
+        Files.createDirectories(directory);
+        this.lockChannel = lock(directory);
+        try {
+            List<Path> files = AuditLogFiles.list(directory);
+            if (files.isEmpty()) {
+                create(0);
+            } else {
+                reopen(files.getLast());
+            }
+        } catch (IOException | RuntimeException e) {
+            lockChannel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Returns the mapped buffer with room for at least one more event.
+     */
+    ByteBuffer buffer() throws IOException {
+        if (buffer.remaining() < BookingAuditEvent.SIZE) {
+            force();
+            channel.close();
+            create(fileIndex + 1);
+        }
+        return buffer;
+    }
+
+    void force() {
+        buffer.force();
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            force();
+            channel.close();
+        } finally {
+            lockChannel.close();
+        }
+    }
+
+    private static FileChannel lock(Path directory) throws IOException {
+        FileChannel lockChannel = FileChannel.open(directory.resolve(LOCK_FILE), StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE);
+        FileLock lock;
+        try {
+            lock = lockChannel.tryLock();
+        } catch (OverlappingFileLockException e) {
+            lock = null;
+        }
+        if (lock == null) {
+            lockChannel.close();
+            throw new IOException(directory.toAbsolutePath() + " is already used by another audit log writer");
+        }
+        return lockChannel;
+    }
+
+    private void create(long index) throws IOException {
+        fileIndex = index;
+        channel = FileChannel.open(directory.resolve(AuditLogFiles.name(index)), StandardOpenOption.CREATE_NEW,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, fileSize);
+        AuditLogFiles.writeHeader(buffer, index);
+    }
+
+    private void reopen(Path file) throws IOException {
+        channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, channel.size());
+        fileIndex = AuditLogFiles.readHeader(buffer, file);
+        while (BookingAuditEvent.readFrom(buffer) != null) {
+            // skip the events already written
+        }
+    }
+}
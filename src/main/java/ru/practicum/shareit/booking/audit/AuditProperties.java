@@ -0,0 +1,15 @@
+package ru.practicum.shareit.booking.audit;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+@ConfigurationProperties("shareit.audit")
+public record AuditProperties(@DefaultValue("true") boolean enabled,
+                              @DefaultValue("audit") String directory,
+                              @DefaultValue("64MB") DataSize fileSize,
+                              @DefaultValue("65536") int bufferCapacity,
+                              @DefaultValue("1s") Duration flushInterval) {
+}
@@ -0,0 +1,96 @@
+package ru.practicum.shareit.booking.audit;
+
+import ru.practicum.shareit.booking.model.BookingStatus;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Bounded lock-free queue of audit events for many producers and a single consumer.
+ * Events are stored as primitive longs in preallocated slots, so publishing does not allocate.
+ * Each slot carries a sequence number: a producer claims a position with a CAS on the tail,
+ * fills the slot and releases it by advancing the slot sequence, which the consumer waits for.
+ * A full buffer rejects the event instead of blocking the caller.
+ */
+final class AuditRingBuffer {
+
+    private static final int SLOT_LONGS = 6;
+    private static final BookingAuditEvent.Type[] TYPES = BookingAuditEvent.Type.values();
+    private static final BookingStatus[] STATUSES = BookingStatus.values();
+
+    private final int capacity;
+    private final int mask;
+    private final long[] slots;
+    private final AtomicLongArray sequences;
+    private final AtomicLong tail = new AtomicLong();
+    private final AtomicLong head = new AtomicLong();
+
+    AuditRingBuffer(int capacity) {
+        if (capacity < 2 || Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("Capacity must be a power of two, got " + capacity);
+        }
+        this.capacity = capacity;
+        this.mask = capacity - 1;
+        this.slots = new long[capacity * SLOT_LONGS];
+        this.sequences = new AtomicLongArray(capacity);
+        for (int i = 0; i < capacity; i++) {
+            sequences.set(i, i);
+        }
+    }
+
+    /**
+     * Returns {@code false} if the buffer is full and the event was dropped.
+     */
+    boolean offer(BookingAuditEvent.Type type, BookingStatus status, long timestamp, long bookingId, long itemId,
+                  long bookerId, long actorId) {
+        long position = tail.get();
+        int index;
+        while (true) {
+            index = (int) (position & mask);
+            long difference = sequences.getAcquire(index) - position;
+            if (difference == 0) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    break;
+                }
+                position = tail.get();
+            } else if (difference < 0) {
+                return false;
+            } else {
+                position = tail.get();
+            }
+        }
+        int offset = index * SLOT_LONGS;
+        slots[offset] = (long) type.ordinal() << 8 | status.ordinal();
+        slots[offset + 1] = timestamp;
+        slots[offset + 2] = bookingId;
+        slots[offset + 3] = itemId;
+        slots[offset + 4] = bookerId;
+        slots[offset + 5] = actorId;
+        sequences.setRelease(index, position + 1);
+        return true;
+    }
+
+    /**
+     * Writes the oldest published event into the buffer in its on-disk layout and frees the slot.
+     * Returns {@code false} if nothing was published yet. Must only be called from the consumer thread.
+     */
+    boolean pollTo(ByteBuffer buffer) {
+        long position = head.get();
+        int index = (int) (position & mask);
+        if (sequences.getAcquire(index) != position + 1) {
+            return false;
+        }
+        int offset = index * SLOT_LONGS;
+        long header = slots[offset];
+        BookingAuditEvent.write(buffer, TYPES[(int) (header >>> 8)], STATUSES[(int) (header & 0xFF)],
+                slots[offset + 1], slots[offset + 2], slots[offset + 3], slots[offset + 4], slots[offset + 5]);
+        sequences.setRelease(index, position + capacity);
+        head.setRelease(position + 1);
+        return true;
+    }
+
+    int size() {
+        return (int) Math.max(0, tail.get() - head.get());
+    }
+}
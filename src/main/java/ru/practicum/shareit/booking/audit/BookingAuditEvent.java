@@ -0,0 +1,64 @@
+package ru.practicum.shareit.booking.audit;
+
+import ru.practicum.shareit.booking.model.BookingStatus;
+
+import java.nio.ByteBuffer;
+
+/**
+ * One entry of the booking audit log. On disk every event takes {@link #SIZE} bytes:
+ * type, status, six bytes of padding, then timestamp, booking, item, booker and actor ids.
+ * A zero type byte marks the end of the written part of a file, so the type is written last.
+ */
+public record BookingAuditEvent(Type type, BookingStatus status, long timestamp, long bookingId, long itemId,
+                                long bookerId, long actorId) {
+
+    public static final int SIZE = 48;
+
+    public enum Type {
+        CREATED,
+        STATUS_CHANGED;
+
+        byte code() {
+            return (byte) (ordinal() + 1);
+        }
+
+        static Type of(byte code) {
+            return values()[code - 1];
+        }
+    }
+
+    void writeTo(ByteBuffer buffer) {
+        write(buffer, type, status, timestamp, bookingId, itemId, bookerId, actorId);
+    }
+
+    static void write(ByteBuffer buffer, Type type, BookingStatus status, long timestamp, long bookingId,
+                      long itemId, long bookerId, long actorId) {
+        int start = buffer.position();
+        buffer.put((byte) 0);
+        buffer.put((byte) status.ordinal());
+        buffer.putShort((short) 0);
+        buffer.putInt(0);
+        buffer.putLong(timestamp);
+        buffer.putLong(bookingId);
+        buffer.putLong(itemId);
+        buffer.putLong(bookerId);
+        buffer.putLong(actorId);
+        buffer.put(start, type.code());
+    }
+
+    /**
+     * Reads the event at the buffer position, or returns {@code null} without moving it
+     * when the rest of the buffer holds no more events.
+     */
+    static BookingAuditEvent readFrom(ByteBuffer buffer) {
+        if (buffer.remaining() < SIZE || buffer.get(buffer.position()) == 0) {
+            return null;
+        }
+        Type type = Type.of(buffer.get());
+        BookingStatus status = BookingStatus.values()[buffer.get()];
+        buffer.getShort();
+        buffer.getInt();
+        return new BookingAuditEvent(type, status, buffer.getLong(), buffer.getLong(), buffer.getLong(),
+                buffer.getLong(), buffer.getLong());
+    }
+}
@@ -0,0 +1,149 @@
+package ru.practicum.shareit.booking.audit;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.util.TransactionCallbacks;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Audit trail of booking changes. Events are put into a lock-free ring buffer after the
+ * transaction commits and a background thread appends them to {@link AuditLogWriter} files,
+ * so the request thread never touches the disk. When the buffer is full the event is dropped
+ * and counted rather than slowing the request down. An idle writer parks until the next flush
+ * is due and is unparked by the first event published while it sleeps.
+ */
+@Slf4j
+@Component
+public class BookingAuditLog {
+
+    private static final long FAILURE_BACKOFF_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final AuditProperties properties;
+    private final AuditRingBuffer ringBuffer;
+    private final Counter written;
+    private final Counter dropped;
+    private volatile boolean running;
+    private volatile boolean writerParked;
+    private Thread writerThread;
+
+    public BookingAuditLog(AuditProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.ringBuffer = new AuditRingBuffer(properties.bufferCapacity());
+        this.written = Counter.builder("booking.audit.written")
+                .register(meterRegistry);
+        this.dropped = Counter.builder("booking.audit.dropped")
+                .register(meterRegistry);
+        Gauge.builder("booking.audit.backlog", ringBuffer, AuditRingBuffer::size)
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() throws IOException {
+        if (!properties.enabled()) {
+            return;
+        }
+        Path directory = Path.of(properties.directory());
+        AuditLogWriter writer = new AuditLogWriter(directory, properties.fileSize().toBytes());
+        running = true;
+        writerThread = Thread.ofPlatform()
+                .name("booking-audit-writer")
+                .daemon()
+                .start(() -> drain(writer));
+        log.info("Booking audit log is written to {}", directory.toAbsolutePath());
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        if (writerThread == null) {
+            return;
+        }
+        running = false;
+        LockSupport.unpark(writerThread);
+        writerThread.join(TimeUnit.SECONDS.toMillis(5));
+    }
+
+    public void bookingCreated(Booking booking, long actorId) {
+        publish(BookingAuditEvent.Type.CREATED, booking, actorId);
+    }
+
+    public void statusChanged(Booking booking, long actorId) {
+        publish(BookingAuditEvent.Type.STATUS_CHANGED, booking, actorId);
+    }
+
+    private void publish(BookingAuditEvent.Type type, Booking booking, long actorId) {
+        if (!running) {
+            return;
+        }
+        long bookingId = booking.getId();
+        long itemId = booking.getItem().getId();
+        long bookerId = booking.getBooker().getId();
+        BookingStatus status = booking.getStatus();
+        TransactionCallbacks.afterCommit(() -> {
+            if (!ringBuffer.offer(type, status, System.currentTimeMillis(), bookingId, itemId, bookerId, actorId)) {
+                dropped.increment();
+            } else if (writerParked) {
+                LockSupport.unpark(writerThread);
+            }
+        });
+    }
+
+    private void drain(AuditLogWriter writer) {
+        long flushNanos = properties.flushInterval().toNanos();
+        long lastFlush = System.nanoTime();
+        boolean dirty = false;
+        while (running || ringBuffer.size() > 0) {
+            try {
+                if (ringBuffer.pollTo(writer.buffer())) {
+                    written.increment();
+                    dirty = true;
+                    continue;
+                }
+                long sinceFlush = System.nanoTime() - lastFlush;
+                if (dirty && sinceFlush >= flushNanos) {
+                    writer.force();
+                    dirty = false;
+                    lastFlush = System.nanoTime();
+                    sinceFlush = 0;
+                }
+                if (running) {
+                    park(dirty ? flushNanos - sinceFlush : flushNanos);
+                }
+            } catch (IOException e) {
+                log.error("Could not write the booking audit log", e);
+                if (!running) {
+                    break;
+                }
+                LockSupport.parkNanos(FAILURE_BACKOFF_NANOS);
+            }
+        }
+        try {
+            writer.close();
+        } catch (IOException e) {
+            log.error("Could not close the booking audit log", e);
+        }
+    }
+
+    // The flag is raised before the buffer is checked again, so an event offered in between
+    // either is seen here or finds the flag set and unparks the writer.
+    private void park(long nanos) {
+        writerParked = true;
+        try {
+            if (ringBuffer.size() == 0 && running) {
+                LockSupport.parkNanos(this, nanos);
+            }
+        } finally {
+            writerParked = false;
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package ru.practicum.shareit.booking.concurrency;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+@ConfigurationProperties("shareit.booking.concurrency")
+public record BookingConcurrencyProperties(@DefaultValue("256") int lockStripes,
+                                           @DefaultValue("5s") Duration lockTimeout,
+                                           @DefaultValue("3") int maxAttempts,
+                                           @DefaultValue("10ms") Duration retryBackoff) {
+}
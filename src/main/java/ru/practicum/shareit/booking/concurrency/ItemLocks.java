@@ -0,0 +1,66 @@
+package ru.practicum.shareit.booking.concurrency;
+
+import org.springframework.dao.CannotAcquireLockException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.util.TransactionCallbacks;
+
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A fixed number of locks shared by all items, so writes to one item are serialized on this
+ * node without a lock per item or a database lock. A lock is held until the surrounding
+ * transaction completes; several items are always locked in stripe order, so two writers
+ * cannot deadlock on each other's stripes.
+ */
+@Component
+public class ItemLocks {
+
+    private final ReentrantLock[] stripes;
+    private final int mask;
+    private final long timeoutNanos;
+
+    public ItemLocks(BookingConcurrencyProperties properties) {
+        int count = Integer.highestOneBit(Math.max(1, properties.lockStripes() - 1)) << 1;
+        this.stripes = new ReentrantLock[count];
+        for (int i = 0; i < count; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+        this.mask = count - 1;
+        this.timeoutNanos = properties.lockTimeout().toNanos();
+    }
+
+    public void lockUntilCompletion(long itemId) {
+        lockStripe(stripe(itemId));
+    }
+
+    public void lockUntilCompletion(Collection<Long> itemIds) {
+        itemIds.stream()
+                .mapToInt(this::stripe)
+                .distinct()
+                .sorted()
+                .forEach(this::lockStripe);
+    }
+
+    private int stripe(long itemId) {
+        return Long.hashCode(itemId) & mask;
+    }
+
+    private void lockStripe(int stripe) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            throw new IllegalStateException("Item locks are held until commit and need a transaction");
+        }
+        ReentrantLock lock = stripes[stripe];
+        try {
+            if (!lock.tryLock(timeoutNanos, TimeUnit.NANOSECONDS)) {
+                throw new CannotAcquireLockException("Item is being changed by another request, try again");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CannotAcquireLockException("Interrupted while waiting for an item lock", e);
+        }
+        TransactionCallbacks.afterCompletion(lock::unlock);
+    }
+}
@@ -0,0 +1,51 @@
+package ru.practicum.shareit.booking.concurrency;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Supplier;
+
+/**
+ * Runs an action in its own transaction and starts it again when the commit loses an
+ * optimistic version check, so the action re-reads what the other writer committed and
+ * decides again. Gives up after {@code shareit.booking.concurrency.max-attempts}.
+ */
+@Slf4j
+@Component
+public class OptimisticRetry {
+
+    private final TransactionTemplate transactionTemplate;
+    private final int maxAttempts;
+    private final long backoffNanos;
+    private final Counter retries;
+
+    public OptimisticRetry(TransactionTemplate transactionTemplate, BookingConcurrencyProperties properties,
+                           MeterRegistry meterRegistry) {
+        this.transactionTemplate = transactionTemplate;
+        this.maxAttempts = Math.max(1, properties.maxAttempts());
+        this.backoffNanos = properties.retryBackoff().toNanos();
+        this.retries = Counter.builder("booking.optimistic.retries")
+                .register(meterRegistry);
+    }
+
+    public <T> T execute(Supplier<T> action) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return transactionTemplate.execute(status -> action.get());
+            } catch (OptimisticLockingFailureException e) {
+                if (attempt >= maxAttempts) {
+                    throw e;
+                }
+                retries.increment();
+                log.debug("Optimistic lock conflict on attempt {}, retrying", attempt);
+                LockSupport.parkNanos(ThreadLocalRandom.current().nextLong(backoffNanos + 1) * attempt);
+            }
+        }
+    }
+}
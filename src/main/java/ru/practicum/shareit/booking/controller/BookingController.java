@@ -1,8 +1,16 @@
 package ru.practicum.shareit.booking.controller;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.Positive;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -12,28 +20,53 @@ import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.context.request.async.WebAsyncTask;
+import ru.practicum.shareit.booking.dto.BookingBatchResultDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingStatsDto;
 import ru.practicum.shareit.booking.dto.RequestBookingDto;
 import ru.practicum.shareit.booking.model.State;
 import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.config.QueryBudget;
 import ru.practicum.shareit.mapper.BookingMapper;
+import ru.practicum.shareit.user.service.UserService;
+import ru.practicum.shareit.util.KeysetCursor;
 
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.util.List;
 
 @RestController
 @RequestMapping(path = "/bookings")
 @RequiredArgsConstructor
 public class BookingController {
+    private static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+
     private final BookingService bookingServiceImpl;
     private final BookingMapper bookingMapper;
+    private final UserService userServiceImpl;
+    private final ObjectMapper objectMapper;
+    private final BookingExportProperties exportProperties;
 
     @PostMapping
+    @QueryBudget(5)
     public BookingDto addBooking(@RequestHeader("X-Sharer-User-Id") long userId,
                                  @Valid @RequestBody RequestBookingDto requestBookingDto) {
         return bookingMapper.mapToBookingDto(bookingServiceImpl.addBooking(userId, requestBookingDto));
     }
 
+    @PostMapping("/batch")
+    @QueryBudget(23)
+    public List<BookingBatchResultDto> addBookings(@RequestHeader("X-Sharer-User-Id") long userId,
+                                                   @RequestBody List<RequestBookingDto> requestBookingDtos) {
+        return bookingServiceImpl.addBookings(userId, requestBookingDtos);
+    }
+
     @PatchMapping("/{bookingId}")
+    @QueryBudget(5)
     public BookingDto handleBookingApproval(@RequestHeader("X-Sharer-User-Id") long userId,
                                             @PathVariable long bookingId,
                                             @RequestParam boolean approved) {
@@ -41,28 +74,88 @@ public class BookingController {
     }
 
     @GetMapping("{bookingId}")
-    public BookingDto getUserBookingById(@RequestHeader("X-Sharer-User-Id") long userId,
-                                         @PathVariable long bookingId) {
-        return bookingMapper.mapToBookingDto(bookingServiceImpl.getUserBookingById(userId, bookingId));
+    @QueryBudget(2)
+    public ResponseEntity<BookingDto> getUserBookingById(@RequestHeader("X-Sharer-User-Id") long userId,
+                                                         @PathVariable long bookingId, WebRequest request,
+                                                         HttpServletResponse response) {
+        String eTag = bookingServiceImpl.getBookingETag(userId, bookingId);
+        if (request.checkNotModified(eTag)) {
+            return null;
+        }
+        BookingDto booking = bookingServiceImpl.getUserBookingById(userId, bookingId);
+        // A write may have committed since the check, which has already set its tag on the response,
+        // so the tag is replaced with the one read together with the body.
+        response.setHeader(HttpHeaders.ETAG, booking.getBookingVersion().eTag());
+        return ResponseEntity.ok(booking);
     }
 
     @GetMapping
-    public List<BookingDto> getAllUserBooking(@RequestHeader("X-Sharer-User-Id") long userId,
-                                              @RequestParam(defaultValue = "ALL") String state,
-                                              @Positive @RequestParam(required = false) Integer from,
-                                              @Positive @RequestParam(required = false) Integer size) {
+    @QueryBudget(2)
+    public ResponseEntity<List<BookingDto>> getAllUserBooking(@RequestHeader("X-Sharer-User-Id") long userId,
+                                                              @RequestParam(defaultValue = "ALL") String state,
+                                                              @Positive @RequestParam(required = false) Integer from,
+                                                              @Positive @RequestParam(required = false) Integer size,
+                                                              @RequestParam(required = false) String cursor) {
         State stateEnum = State.fromString(state.toUpperCase());
-        return bookingServiceImpl.getAllUserBooking(userId, stateEnum, from, size)
-                .stream().map(bookingMapper::mapToBookingDto).toList();
+        return toPage(bookingServiceImpl.getAllUserBooking(userId, stateEnum, from, size,
+                KeysetCursor.decode(cursor)), size);
     }
 
     @GetMapping("/owner")
-    public List<BookingDto> getAllOwnerBooking(@RequestHeader("X-Sharer-User-Id") long ownerId,
-                                               @RequestParam(defaultValue = "ALL") String state,
-                                               @Positive @RequestParam(required = false) Integer from,
-                                               @Positive @RequestParam(required = false) Integer size) {
+    @QueryBudget(2)
+    public ResponseEntity<List<BookingDto>> getAllOwnerBooking(@RequestHeader("X-Sharer-User-Id") long ownerId,
+                                                               @RequestParam(defaultValue = "ALL") String state,
+                                                               @Positive @RequestParam(required = false) Integer from,
+                                                               @Positive @RequestParam(required = false) Integer size,
+                                                               @RequestParam(required = false) String cursor) {
+        State stateEnum = State.fromString(state.toUpperCase());
+        return toPage(bookingServiceImpl.getAllOwnerBooking(ownerId, stateEnum, from, size,
+                KeysetCursor.decode(cursor)), size);
+    }
+
+    @GetMapping("/owner/stats")
+    @QueryBudget(3)
+    public BookingStatsDto getOwnerBookingStats(@RequestHeader("X-Sharer-User-Id") long ownerId,
+                                                @RequestParam(defaultValue = "false") boolean reconcile) {
+        return bookingServiceImpl.getOwnerBookingStats(ownerId, reconcile);
+    }
+
+    /**
+     * Streams on an async request with its own timeout, so only the export gets the long one.
+     * The task writes the body itself and returns no entity.
+     */
+    @GetMapping("/owner/export")
+    @QueryBudget(1)
+    public WebAsyncTask<ResponseEntity<Void>> exportOwnerBooking(@RequestHeader("X-Sharer-User-Id") long ownerId,
+                                                                 @RequestParam(defaultValue = "ALL") String state,
+                                                                 HttpServletResponse response) {
         State stateEnum = State.fromString(state.toUpperCase());
-        return bookingServiceImpl.getAllOwnerBooking(ownerId, stateEnum, from, size)
-                .stream().map(bookingMapper::mapToBookingDto).toList();
+        userServiceImpl.getUser(ownerId);
+        ObjectWriter writer = objectMapper.writerFor(BookingDto.class)
+                .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        return new WebAsyncTask<>(exportProperties.timeout().toMillis(), () -> {
+            response.setContentType(NDJSON.toString());
+            OutputStream out = new BufferedOutputStream(response.getOutputStream(), 64 * 1024);
+            bookingServiceImpl.exportOwnerBookings(ownerId, stateEnum, bookingDto -> {
+                try {
+                    writer.writeValue(out, bookingDto);
+                    out.write('\n');
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            out.flush();
+            return null;
+        });
+    }
+
+    private ResponseEntity<List<BookingDto>> toPage(List<BookingDto> bookings, Integer size) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (size != null && bookings.size() == size) {
+            BookingDto last = bookings.getLast();
+            response.header(KeysetCursor.HEADER, new KeysetCursor(last.getStart(), last.getId()).encode());
+        }
+        return response.body(bookings);
     }
-}
\ No newline at end of file
+}
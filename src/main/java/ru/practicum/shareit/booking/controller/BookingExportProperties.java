@@ -0,0 +1,10 @@
+package ru.practicum.shareit.booking.controller;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+@ConfigurationProperties("shareit.booking.export")
+public record BookingExportProperties(@DefaultValue("30m") Duration timeout) {
+}
@@ -1,5 +1,7 @@
 package ru.practicum.shareit.booking.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import ru.practicum.shareit.booking.model.BookingStatus;
@@ -10,6 +12,7 @@ import java.time.LocalDateTime;
 
 @Data
 @Builder
+@AllArgsConstructor
 public class BookingDto {
     private Long id;
     private LocalDateTime start;
@@ -17,4 +20,32 @@ public class BookingDto {
     private ItemDto item;
     private UserDto booker;
     private BookingStatus status;
+    @JsonIgnore
+    private BookingVersion bookingVersion;
+
+    /**
+     * Flat constructor for JPQL constructor expressions, which cannot build the nested DTOs themselves.
+     */
+    public BookingDto(Long id, LocalDateTime start, LocalDateTime end, BookingStatus status,
+                      Long itemId, String itemName, String itemDescription, Boolean itemAvailable, Long itemRequest,
+                      Long bookerId, String bookerName, String bookerEmail) {
+        this(id, start, end,
+                new ItemDto(itemId, itemName, itemDescription, itemAvailable, itemRequest),
+                UserDto.builder().id(bookerId).name(bookerName).email(bookerEmail).build(),
+                status, null);
+    }
+
+    /**
+     * Flat constructor that also takes the versions read from the same rows, so a tag built from
+     * {@link #bookingVersion} describes this representation.
+     */
+    public BookingDto(Long id, LocalDateTime start, LocalDateTime end, BookingStatus status,
+                      Long itemId, String itemName, String itemDescription, Boolean itemAvailable, Long itemRequest,
+                      Long bookerId, String bookerName, String bookerEmail,
+                      Long version, Long itemVersion, Long bookerVersion) {
+        this(id, start, end,
+                new ItemDto(itemId, itemName, itemDescription, itemAvailable, itemRequest),
+                UserDto.builder().id(bookerId).name(bookerName).email(bookerEmail).build(),
+                status, new BookingVersion(version, itemVersion, bookerVersion));
+    }
 }
\ No newline at end of file
@@ -0,0 +1,10 @@
+package ru.practicum.shareit.booking.dto;
+
+import ru.practicum.shareit.util.EntityTags;
+
+public record BookingVersion(Long version, Long itemVersion, Long bookerVersion) {
+
+    public String eTag() {
+        return EntityTags.of(version, itemVersion, bookerVersion);
+    }
+}
@@ -0,0 +1,6 @@
+package ru.practicum.shareit.booking.index;
+
+import java.time.LocalDateTime;
+
+public record BookingInterval(Long bookingId, Long itemId, Long bookerId, LocalDateTime start, LocalDateTime end) {
+}
@@ -0,0 +1,216 @@
+package ru.practicum.shareit.booking.index;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.erorr.exception.ValidationException;
+import ru.practicum.shareit.user.event.UserDeletedEvent;
+import ru.practicum.shareit.util.TransactionCallbacks;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * In-memory index of the WAITING and APPROVED booking intervals of every item.
+ * A lookup "hit" means the requested window overlaps an existing booking and is rejected.
+ */
+@Slf4j
+@Component
+public class BookingIntervalIndex {
+
+    private static final List<BookingStatus> ACTIVE_STATUSES = List.of(BookingStatus.WAITING, BookingStatus.APPROVED);
+
+    private final BookingRepository bookingRepository;
+    private final Map<Long, ItemIntervals> items = new ConcurrentHashMap<>();
+    private final Counter hits;
+    private final Counter misses;
+    private final Timer rebuildTimer;
+
+    public BookingIntervalIndex(BookingRepository bookingRepository, MeterRegistry meterRegistry) {
+        this.bookingRepository = bookingRepository;
+        this.hits = Counter.builder("booking.interval.index.lookups")
+                .tag("result", "hit")
+                .register(meterRegistry);
+        this.misses = Counter.builder("booking.interval.index.lookups")
+                .tag("result", "miss")
+                .register(meterRegistry);
+        this.rebuildTimer = Timer.builder("booking.interval.index.rebuild")
+                .register(meterRegistry);
+        Gauge.builder("booking.interval.index.size", this, BookingIntervalIndex::size)
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        rebuildTimer.record(() -> {
+            Map<Long, List<BookingInterval>> intervalsByItem = bookingRepository
+                    .findActiveIntervals(ACTIVE_STATUSES, LocalDateTime.now())
+                    .stream()
+                    .collect(Collectors.groupingBy(BookingInterval::itemId));
+            intervalsByItem.forEach((itemId, intervals) -> {
+                ItemIntervals itemIntervals = items.computeIfAbsent(itemId, id -> new ItemIntervals());
+                itemIntervals.lock.lock();
+                try {
+                    intervals.forEach(itemIntervals::add);
+                } finally {
+                    itemIntervals.lock.unlock();
+                }
+            });
+            log.info("Booking interval index rebuilt for {} items", intervalsByItem.size());
+        });
+    }
+
+    public Booking reserve(Booking booking, Supplier<Booking> save) {
+        long itemId = booking.getItem().getId();
+        ItemIntervals itemIntervals = items.computeIfAbsent(itemId, id -> new ItemIntervals());
+        itemIntervals.lock.lock();
+        try {
+            itemIntervals.prune(LocalDateTime.now());
+            if (itemIntervals.overlaps(booking.getStart(), booking.getEnd(), booking.getId())) {
+                hits.increment();
+                throw new ValidationException("Item is already booked for the requested period");
+            }
+            misses.increment();
+            Booking saveBooking = save.get();
+            BookingInterval interval = new BookingInterval(saveBooking.getId(), itemId,
+                    saveBooking.getBooker().getId(), saveBooking.getStart(), saveBooking.getEnd());
+            itemIntervals.add(interval);
+            TransactionCallbacks.afterRollback(() -> remove(interval));
+            return saveBooking;
+        } finally {
+            itemIntervals.lock.unlock();
+        }
+    }
+
+    public void release(Booking booking) {
+        BookingInterval interval = new BookingInterval(booking.getId(), booking.getItem().getId(),
+                booking.getBooker().getId(), booking.getStart(), booking.getEnd());
+        TransactionCallbacks.afterCommit(() -> remove(interval));
+    }
+
+    @TransactionalEventListener
+    public void onUserDeleted(UserDeletedEvent event) {
+        items.values().forEach(itemIntervals -> {
+            itemIntervals.lock.lock();
+            try {
+                itemIntervals.removeIf(interval -> interval.bookerId() == event.userId());
+            } finally {
+                itemIntervals.lock.unlock();
+            }
+        });
+    }
+
+    public int size() {
+        return items.values().stream()
+                .mapToInt(itemIntervals -> itemIntervals.byStart.size())
+                .sum();
+    }
+
+    private void remove(BookingInterval interval) {
+        ItemIntervals itemIntervals = items.get(interval.itemId());
+        if (itemIntervals == null) {
+            return;
+        }
+        itemIntervals.lock.lock();
+        try {
+            itemIntervals.remove(new IntervalKey(interval.start(), interval.bookingId()));
+        } finally {
+            itemIntervals.lock.unlock();
+        }
+    }
+
+    private record IntervalKey(LocalDateTime start, long bookingId) implements Comparable<IntervalKey> {
+
+        private static final Comparator<IntervalKey> ORDER = Comparator.comparing(IntervalKey::start)
+                .thenComparingLong(IntervalKey::bookingId);
+
+        @Override
+        public int compareTo(IntervalKey other) {
+            return ORDER.compare(this, other);
+        }
+    }
+
+    private static final class ItemIntervals {
+        private final ReentrantLock lock = new ReentrantLock();
+        private final NavigableMap<IntervalKey, BookingInterval> byStart = new TreeMap<>();
+        // Durations of the intervals in byStart with their counts, so the longest one is known
+        // after any removal.
+        private final NavigableMap<Duration, Integer> durations = new TreeMap<>();
+
+        private void add(BookingInterval interval) {
+            BookingInterval replaced = byStart.put(new IntervalKey(interval.start(), interval.bookingId()), interval);
+            if (replaced != null) {
+                forget(replaced);
+            }
+            durations.merge(duration(interval), 1, Integer::sum);
+        }
+
+        private void remove(IntervalKey key) {
+            BookingInterval removed = byStart.remove(key);
+            if (removed != null) {
+                forget(removed);
+            }
+        }
+
+        private void removeIf(Predicate<BookingInterval> filter) {
+            removeIf(byStart, filter);
+        }
+
+        // Any interval overlapping [start, end) must begin within (start - longest, end),
+        // so only that slice of the tree is inspected.
+        private boolean overlaps(LocalDateTime start, LocalDateTime end, Long ignoredBookingId) {
+            IntervalKey from = new IntervalKey(start.minus(longest()), Long.MIN_VALUE);
+            IntervalKey to = new IntervalKey(end, Long.MIN_VALUE);
+            return byStart.subMap(from, true, to, false).values().stream()
+                    .filter(interval -> !interval.bookingId().equals(ignoredBookingId))
+                    .anyMatch(interval -> interval.end().isAfter(start));
+        }
+
+        private void prune(LocalDateTime now) {
+            removeIf(byStart.headMap(new IntervalKey(now.minus(longest()), Long.MIN_VALUE)), interval -> true);
+        }
+
+        private Duration longest() {
+            return durations.isEmpty() ? Duration.ZERO : durations.lastKey();
+        }
+
+        private void removeIf(Map<IntervalKey, BookingInterval> intervals, Predicate<BookingInterval> filter) {
+            Iterator<BookingInterval> iterator = intervals.values().iterator();
+            while (iterator.hasNext()) {
+                BookingInterval interval = iterator.next();
+                if (filter.test(interval)) {
+                    iterator.remove();
+                    forget(interval);
+                }
+            }
+        }
+
+        private void forget(BookingInterval interval) {
+            durations.computeIfPresent(duration(interval), (duration, count) -> count == 1 ? null : count - 1);
+        }
+
+        private static Duration duration(BookingInterval interval) {
+            return Duration.between(interval.start(), interval.end());
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package ru.practicum.shareit.booking.model;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Translates a {@link State} into bounds on status, start and end so that every state
+ * is served by the same index-friendly query.
+ */
+public record BookingFilter(List<BookingStatus> statuses,
+                            LocalDateTime startAfter,
+                            LocalDateTime startBefore,
+                            LocalDateTime endFrom,
+                            LocalDateTime endBefore) {
+
+    private static final LocalDateTime MIN = LocalDateTime.of(1900, 1, 1, 0, 0);
+    private static final LocalDateTime MAX = LocalDateTime.of(9999, 12, 31, 23, 59);
+    private static final List<BookingStatus> ANY_STATUS = List.of(BookingStatus.values());
+
+    public static BookingFilter of(State state, LocalDateTime now) {
+        return switch (state) {
+            case ALL -> new BookingFilter(ANY_STATUS, MIN, MAX, MIN, MAX);
+            case CURRENT -> new BookingFilter(ANY_STATUS, MIN, now, now, MAX);
+            case PAST -> new BookingFilter(ANY_STATUS, MIN, MAX, MIN, now);
+            case FUTURE -> new BookingFilter(ANY_STATUS, now, MAX, MIN, MAX);
+            case WAITING -> new BookingFilter(List.of(BookingStatus.WAITING), MIN, MAX, MIN, MAX);
+            case REJECTED -> new BookingFilter(List.of(BookingStatus.REJECTED), MIN, MAX, MIN, MAX);
+        };
+    }
+}
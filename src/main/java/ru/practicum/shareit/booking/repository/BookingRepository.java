@@ -1,99 +1,238 @@
 package ru.practicum.shareit.booking.repository;
 
-import org.springframework.data.domain.Page;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingDtoForItem;
+import ru.practicum.shareit.booking.dto.BookingVersion;
+import ru.practicum.shareit.booking.index.BookingInterval;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingFilter;
 import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.stats.BookingPeriod;
+import ru.practicum.shareit.booking.stats.OwnerStatusCount;
+import ru.practicum.shareit.item.availability.ItemBookingSpan;
+import ru.practicum.shareit.item.dto.TimeSlot;
+import ru.practicum.shareit.util.KeysetCursor;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface BookingRepository extends JpaRepository<Booking, Long> {
 
     @Query("""
-            select b from Booking b
-            left join b.item i
-            where (b.booker.id = ?2 and b.id = ?1)
-            or (i.owner.id = ?2 and b.id = ?1)
+            select new ru.practicum.shareit.booking.dto.BookingDto(b.id, b.start, b.end, b.status,
+                i.id, i.name, i.description, i.available, i.request, u.id, u.name, u.email,
+                b.version, i.version, u.version)
+            from Booking b
+            join b.item i
+            join b.booker u
+            where b.id = ?1
+            and (u.id = ?2 or i.owner.id = ?2)
             """)
-    Optional<Booking> getUserBookingById(long bookingId, long bookerId);
-
-    List<Booking> findByBookerIdAndStatusOrderByStartDesc(long bookerId, BookingStatus status);
+    Optional<BookingDto> getUserBookingById(long bookingId, long bookerId);
 
     @Query("""
-            select b from Booking b
-            where b.booker.id = ?1
-            and b.start < ?2 and b.end >= ?2
-            order by b.start desc
+            select new ru.practicum.shareit.booking.dto.BookingVersion(b.version, i.version, u.version)
+            from Booking b
+            join b.item i
+            join b.booker u
+            where b.id = ?1
+            and (u.id = ?2 or i.owner.id = ?2)
             """)
-    List<Booking> findAllByBookerIdAndCurrentTime(Long bookerId, LocalDateTime currentTime);
+    Optional<BookingVersion> getUserBookingVersion(long bookingId, long bookerId);
 
-    Page<Booking> findAllByBookerIdOrderByStartDesc(long bookerId, Pageable page);
+    @Query("""
+            select new ru.practicum.shareit.booking.dto.BookingDto(b.id, b.start, b.end, b.status,
+                i.id, i.name, i.description, i.available, i.request, u.id, u.name, u.email)
+            from Booking b
+            join b.item i
+            join b.booker u
+            where b.booker.id = :bookerId
+            and b.status in :statuses
+            and b.start > :startAfter and b.start < :startBefore
+            and b.end >= :endFrom and b.end < :endBefore
+            and b.start <= :cursorStart and (b.start < :cursorStart or b.id < :cursorId)
+            order by b.start desc, b.id desc
+            """)
+    List<BookingDto> findBookerBookingsBefore(@Param("bookerId") long bookerId,
+                                              @Param("statuses") Collection<BookingStatus> statuses,
+                                              @Param("startAfter") LocalDateTime startAfter,
+                                              @Param("startBefore") LocalDateTime startBefore,
+                                              @Param("endFrom") LocalDateTime endFrom,
+                                              @Param("endBefore") LocalDateTime endBefore,
+                                              @Param("cursorStart") LocalDateTime cursorStart,
+                                              @Param("cursorId") long cursorId,
+                                              Pageable page);
 
-    List<Booking> findAllByBookerIdAndEndBeforeOrderByStartDesc(long bookerId, LocalDateTime end);
+    default List<BookingDto> findBookerBookings(long bookerId, BookingFilter filter, KeysetCursor cursor,
+                                                Pageable page) {
+        return findBookerBookingsBefore(bookerId, filter.statuses(), filter.startAfter(), filter.startBefore(),
+                filter.endFrom(), filter.endBefore(), cursor.timestamp(), cursor.id(), page);
+    }
 
-    List<Booking> findAllByBookerIdAndStartAfterOrderByStartDesc(long bookerId, LocalDateTime start);
+    @Query("""
+            select new ru.practicum.shareit.booking.dto.BookingDto(b.id, b.start, b.end, b.status,
+                i.id, i.name, i.description, i.available, i.request, u.id, u.name, u.email)
+            from Booking b
+            join b.item i
+            join b.booker u
+            where i.owner.id = :ownerId
+            and b.status in :statuses
+            and b.start > :startAfter and b.start < :startBefore
+            and b.end >= :endFrom and b.end < :endBefore
+            and b.start <= :cursorStart and (b.start < :cursorStart or b.id < :cursorId)
+            order by b.start desc, b.id desc
+            """)
+    List<BookingDto> findOwnerBookingsBefore(@Param("ownerId") long ownerId,
+                                             @Param("statuses") Collection<BookingStatus> statuses,
+                                             @Param("startAfter") LocalDateTime startAfter,
+                                             @Param("startBefore") LocalDateTime startBefore,
+                                             @Param("endFrom") LocalDateTime endFrom,
+                                             @Param("endBefore") LocalDateTime endBefore,
+                                             @Param("cursorStart") LocalDateTime cursorStart,
+                                             @Param("cursorId") long cursorId,
+                                             Pageable page);
 
+    /**
+     * A page of {@link #findOwnerBookingsBefore}. An owner can have thousands of bookings across their
+     * items; the page is picked from booking and item rows alone, and only its rows are joined to
+     * the booker and projected, instead of every matching booking before the sort.
+     */
     @Query("""
-            select b from Booking b
-            left join b.item i
-            where (i.owner.id = ?1 and b.status = ?2)
-            order by b.start desc
+            select new ru.practicum.shareit.booking.dto.BookingDto(b.id, b.start, b.end, b.status,
+                i.id, i.name, i.description, i.available, i.request, u.id, u.name, u.email)
+            from Booking b
+            join b.item i
+            join b.booker u
+            where b.id in (
+                select p.id
+                from Booking p
+                where p.item.owner.id = :ownerId
+                and p.status in :statuses
+                and p.start > :startAfter and p.start < :startBefore
+                and p.end >= :endFrom and p.end < :endBefore
+                and p.start <= :cursorStart and (p.start < :cursorStart or p.id < :cursorId)
+                order by p.start desc, p.id desc
+                limit :limit offset :offset)
+            order by b.start desc, b.id desc
             """)
-    List<Booking> findAllByOwnerIdAndStatus(long ownerId, BookingStatus status);
+    List<BookingDto> findOwnerBookingPageBefore(@Param("ownerId") long ownerId,
+                                                @Param("statuses") Collection<BookingStatus> statuses,
+                                                @Param("startAfter") LocalDateTime startAfter,
+                                                @Param("startBefore") LocalDateTime startBefore,
+                                                @Param("endFrom") LocalDateTime endFrom,
+                                                @Param("endBefore") LocalDateTime endBefore,
+                                                @Param("cursorStart") LocalDateTime cursorStart,
+                                                @Param("cursorId") long cursorId,
+                                                @Param("offset") int offset,
+                                                @Param("limit") int limit);
+
+    default List<BookingDto> findOwnerBookings(long ownerId, BookingFilter filter, KeysetCursor cursor,
+                                               Pageable page) {
+        if (page.isUnpaged()) {
+            return findOwnerBookingsBefore(ownerId, filter.statuses(), filter.startAfter(), filter.startBefore(),
+                    filter.endFrom(), filter.endBefore(), cursor.timestamp(), cursor.id(), page);
+        }
+        return findOwnerBookingPageBefore(ownerId, filter.statuses(), filter.startAfter(), filter.startBefore(),
+                filter.endFrom(), filter.endBefore(), cursor.timestamp(), cursor.id(),
+                Math.toIntExact(page.getOffset()), page.getPageSize());
+    }
 
     @Query("""
-            select b from Booking b
-            left join b.item i
-            where i.owner.id = ?1
-            and b.start < ?2 and b.end >= ?2
-            order by b.start desc
+            select new ru.practicum.shareit.booking.dto.BookingDto(b.id, b.start, b.end, b.status,
+                i.id, i.name, i.description, i.available, i.request, u.id, u.name, u.email)
+            from Booking b
+            join b.item i
+            join b.booker u
+            where i.owner.id = :ownerId
+            and b.status in :statuses
+            and b.start > :startAfter and b.start < :startBefore
+            and b.end >= :endFrom and b.end < :endBefore
+            order by b.start desc, b.id desc
             """)
-    List<Booking> findAllByOwnerIdAndCurrentTime(long ownerId, LocalDateTime currentTime);
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    Stream<BookingDto> streamOwnerBookingsBetween(@Param("ownerId") long ownerId,
+                                                  @Param("statuses") Collection<BookingStatus> statuses,
+                                                  @Param("startAfter") LocalDateTime startAfter,
+                                                  @Param("startBefore") LocalDateTime startBefore,
+                                                  @Param("endFrom") LocalDateTime endFrom,
+                                                  @Param("endBefore") LocalDateTime endBefore);
 
+    /**
+     * The length of every item's longest booking in the given statuses, in whole seconds.
+     */
     @Query("""
-            select b from Booking b
-            left join b.item i
-            where (i.owner.id = ?1)
-            order by b.start desc
+            select new ru.practicum.shareit.item.availability.ItemBookingSpan(b.item.id,
+                max((b.end - b.start) by second))
+            from Booking b
+            where b.status in :statuses
+            group by b.item.id
             """)
-    Page<Booking> findAllByOwnerIdOrderByStartDesc(long ownerId, Pageable page);
+    List<ItemBookingSpan> findLongestBookings(@Param("statuses") Collection<BookingStatus> statuses);
 
     @Query("""
-            select b from Booking b
-            left join b.item i
-            where (i.owner.id = ?1 and b.end < ?2)
-            order by b.start desc
+            select max((b.end - b.start) by second)
+            from Booking b
+            where b.item.id = :itemId
+            and b.status in :statuses
             """)
-    List<Booking> findAllByOwnerIdAndEndBefore(long ownerId, LocalDateTime end);
+    Optional<Long> findLongestBooking(@Param("itemId") long itemId,
+                                      @Param("statuses") Collection<BookingStatus> statuses);
 
+    /**
+     * Bookings of an item overlapping {@code [from, to)} in start order; must be consumed and closed
+     * inside a transaction. {@code earliestStart} must be no later than {@code from} minus the
+     * item's longest booking, which bounds the index range scan.
+     */
     @Query("""
-            select b from Booking b
-            left join b.item i
-            where (i.owner.id = ?1 and b.start > ?2)
-            order by b.start desc
+            select new ru.practicum.shareit.item.dto.TimeSlot(b.start, b.end)
+            from Booking b
+            where b.item.id = :itemId
+            and b.status in :statuses
+            and b.start >= :earliestStart and b.start < :to and b.end > :from
+            order by b.start
             """)
-    List<Booking> findAllByOwnerIdAndStartAfter(long ownerId, LocalDateTime start);
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    Stream<TimeSlot> streamBookedSlots(@Param("itemId") long itemId,
+                                       @Param("statuses") Collection<BookingStatus> statuses,
+                                       @Param("earliestStart") LocalDateTime earliestStart,
+                                       @Param("from") LocalDateTime from,
+                                       @Param("to") LocalDateTime to);
+
+    /**
+     * Forward-only cursor over an owner's bookings; must be consumed and closed inside a transaction.
+     */
+    default Stream<BookingDto> streamOwnerBookings(long ownerId, BookingFilter filter) {
+        return streamOwnerBookingsBetween(ownerId, filter.statuses(), filter.startAfter(), filter.startBefore(),
+                filter.endFrom(), filter.endBefore());
+    }
 
     @Query("""
-            select b from Booking b
+            select new ru.practicum.shareit.booking.dto.BookingDtoForItem(b.id, b.start, b.end, b.booker.id, b.status)
+            from Booking b
             where (b.item.id = ?1 and b.start < ?2 and b.status != ?3)
             order by b.start desc
             limit 1
             """)
-    Optional<Booking> findLastBookingForItem(long itemId, LocalDateTime localDateTime, BookingStatus status);
+    Optional<BookingDtoForItem> findLastBookingForItem(long itemId, LocalDateTime localDateTime, BookingStatus status);
 
     @Query("""
-            select b from Booking b
+            select new ru.practicum.shareit.booking.dto.BookingDtoForItem(b.id, b.start, b.end, b.booker.id, b.status)
+            from Booking b
             where (b.item.id = ?1 and b.start > ?2 and b.status != ?3)
             order by b.start
             limit 1
             """)
-    Optional<Booking> findNextBookingForItem(long itemId, LocalDateTime localDateTime, BookingStatus status);
+    Optional<BookingDtoForItem> findNextBookingForItem(long itemId, LocalDateTime localDateTime, BookingStatus status);
 
     @Query("""
             select b from Booking b
@@ -101,10 +240,57 @@ public interface BookingRepository extends JpaRepository<Booking, Long> {
             """)
     List<Booking> findBookingForComment(long itemId, long bookerId, LocalDateTime localDateTime);
 
+    /**
+     * Numbers each item's past bookings by end and future bookings by start in one pass over the
+     * item's rows, and keeps the first of each. Bookings in progress belong to neither side.
+     */
+    @Query(value = """
+            SELECT * FROM (
+                SELECT b.*, ROW_NUMBER() OVER (
+                    PARTITION BY b.item_id, b.end_date < :now
+                    ORDER BY CASE WHEN b.end_date < :now THEN b.end_date END DESC, b.start_date
+                ) AS place
+                FROM booking b
+                WHERE b.item_id IN (:itemIds) AND b.status <> :ignoredStatus
+                AND (b.end_date < :now OR b.start_date > :now)
+            ) ranked
+            WHERE ranked.place = 1
+            """, nativeQuery = true)
+    List<Booking> findLastAndNextByItemIds(@Param("itemIds") Collection<Long> itemIds,
+                                           @Param("ignoredStatus") String ignoredStatus,
+                                           @Param("now") LocalDateTime now);
+
+    default List<Booking> findLastAndNextByItemIdIn(List<Long> itemIds, BookingStatus status, LocalDateTime now) {
+        return findLastAndNextByItemIds(itemIds, status.name(), now);
+    }
+
+    @Query("""
+            SELECT new ru.practicum.shareit.booking.index.BookingInterval(b.id, b.item.id, b.booker.id, b.start, b.end)
+            FROM Booking b
+            WHERE b.status IN :statuses and b.end > :now
+            """)
+    List<BookingInterval> findActiveIntervals(@Param("statuses") Collection<BookingStatus> statuses,
+                                              @Param("now") LocalDateTime now);
+
+    @Query("""
+            SELECT new ru.practicum.shareit.booking.stats.OwnerStatusCount(i.owner.id, b.status, count(b),
+                sum(case when b.end < :now then 1 else 0 end), sum(case when b.start > :now then 1 else 0 end))
+            FROM Booking b
+            JOIN b.item i
+            WHERE i.owner.id = :ownerId
+            GROUP BY i.owner.id, b.status
+            """)
+    List<OwnerStatusCount> countOwnerBookingsByStatus(@Param("ownerId") long ownerId,
+                                                      @Param("now") LocalDateTime now);
+
     @Query("""
-            SELECT b FROM Booking b
-            WHERE b.item.id IN :itemIds and b.status != :status
+            SELECT new ru.practicum.shareit.booking.stats.BookingPeriod(i.owner.id, b.id, b.start, b.end)
+            FROM Booking b
+            JOIN b.item i
+            WHERE i.owner.id = :ownerId and b.end >= :now
             """)
-    List<Booking> findByItemIdIn(@Param("itemIds") List<Long> itemIds, @Param("status") BookingStatus status);
+    List<BookingPeriod> findOwnerBookingPeriods(@Param("ownerId") long ownerId, @Param("now") LocalDateTime now);
 
-}
\ No newline at end of file
+    @Query("select distinct b.item.owner.id from Booking b where b.booker.id = ?1")
+    List<Long> findOwnerIdsBookedBy(long bookerId);
+}
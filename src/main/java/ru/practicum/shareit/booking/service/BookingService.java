@@ -1,28 +1,42 @@
 package ru.practicum.shareit.booking.service;
 
+import ru.practicum.shareit.booking.dto.BookingBatchResultDto;
+import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingDtoForItem;
+import ru.practicum.shareit.booking.dto.BookingStatsDto;
 import ru.practicum.shareit.booking.dto.RequestBookingDto;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.State;
+import ru.practicum.shareit.util.KeysetCursor;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Consumer;
 
 public interface BookingService {
 
     Booking addBooking(long bookerId, RequestBookingDto requestBookingDto);
 
+    List<BookingBatchResultDto> addBookings(long bookerId, List<RequestBookingDto> requestBookingDtos);
+
     Booking handleBookingApproval(long ownerId, long bookingId, boolean approved);
 
-    Booking getUserBookingById(long bookerId, long bookingId);
+    BookingDto getUserBookingById(long bookerId, long bookingId);
+
+    String getBookingETag(long userId, long bookingId);
+
+    List<BookingDto> getAllUserBooking(long userId, State state, Integer from, Integer size, KeysetCursor cursor);
+
+    List<BookingDto> getAllOwnerBooking(long ownerId, State state, Integer from, Integer size, KeysetCursor cursor);
 
-    List<Booking> getAllUserBooking(long userId, State state, Integer from, Integer size);
+    long exportOwnerBookings(long ownerId, State state, Consumer<BookingDto> consumer);
 
-    List<Booking> getAllOwnerBooking(long ownerId, State state, Integer from, Integer size);
+    BookingStatsDto getOwnerBookingStats(long ownerId, boolean reconcile);
 
     BookingDtoForItem getBookingForItem(long itemId, String booking);
 
-    Map<Long, List<Booking>> getBookingsForItems(List<Long> itemIds);
+    Map<Long, List<Booking>> getBookingsForItems(List<Long> itemIds, LocalDateTime now);
 
     List<Booking> getBookingsForComment(long itemId, long bookerId);
 }
\ No newline at end of file
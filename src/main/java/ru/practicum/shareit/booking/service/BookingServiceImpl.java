@@ -1,32 +1,53 @@
 package ru.practicum.shareit.booking.service;
 
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
-import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.audit.BookingAuditLog;
+import ru.practicum.shareit.booking.concurrency.ItemLocks;
+import ru.practicum.shareit.booking.concurrency.OptimisticRetry;
+import ru.practicum.shareit.booking.dto.BookingBatchResultDto;
+import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingDtoForItem;
+import ru.practicum.shareit.booking.dto.BookingStatsDto;
+import ru.practicum.shareit.booking.dto.BookingVersion;
 import ru.practicum.shareit.booking.dto.RequestBookingDto;
+import ru.practicum.shareit.booking.index.BookingIntervalIndex;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingFilter;
 import ru.practicum.shareit.booking.model.BookingStatus;
 import ru.practicum.shareit.booking.model.State;
 import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.stats.OwnerBookingStats;
 import ru.practicum.shareit.erorr.exception.AccessDeniedException;
 import ru.practicum.shareit.erorr.exception.EntityNotFoundException;
 import ru.practicum.shareit.erorr.exception.ValidationException;
+import ru.practicum.shareit.item.availability.AvailabilityCalendar;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
 import ru.practicum.shareit.mapper.BookingMapper;
+import ru.practicum.shareit.metrics.ServiceMetrics;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.service.UserService;
+import ru.practicum.shareit.util.KeysetCursor;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Slf4j
 @Service
@@ -36,121 +57,280 @@ public class BookingServiceImpl implements BookingService {
 
     private static final String LAST_BOOKING = "last";
     private static final String NEXT_BOOKING = "next";
+    private static final int MAX_BATCH_SIZE = 500;
     private final BookingRepository bookingRepository;
     private final UserService userServiceImpl;
     private final BookingMapper bookingMapper;
     private final ItemRepository itemRepository;
+    private final BookingIntervalIndex bookingIntervalIndex;
+    private final Validator validator;
+    private final ServiceMetrics serviceMetrics;
+    private final BookingAuditLog bookingAuditLog;
+    private final OwnerBookingStats ownerBookingStats;
+    private final ItemLocks itemLocks;
+    private final OptimisticRetry optimisticRetry;
+    private final AvailabilityCalendar availabilityCalendar;
 
     @Override
     public Booking addBooking(long bookerId, RequestBookingDto requestBookingDto) {
         log.info("Adding booking: {}", requestBookingDto);
+        return serviceMetrics.record("booking.add", () -> {
+            itemLocks.lockUntilCompletion(requestBookingDto.getItemId());
+            User booker = userServiceImpl.getUser(bookerId);
+            Item item = itemRepository.findById(requestBookingDto.getItemId())
+                    .orElseThrow(() -> new EntityNotFoundException("Item not found"));
+            Booking booking = createBooking(booker, item, requestBookingDto);
+            itemRepository.incrementBookingStamps(List.of(item.getId()));
+            log.info("Booking ID {} saved for item ID {}", booking.getId(), item.getId());
+            return booking;
+        });
+    }
+
+    /**
+     * Validates and saves every entry on its own, so one bad entry does not fail the batch.
+     * The inserts are flushed together as JDBC batches at the end.
+     */
+    @Override
+    public List<BookingBatchResultDto> addBookings(long bookerId, List<RequestBookingDto> requestBookingDtos) {
+        log.info("Adding {} bookings for user ID {}", requestBookingDtos.size(), bookerId);
+        return serviceMetrics.recordResults("booking.batch", null, () -> saveBatch(bookerId, requestBookingDtos));
+    }
+
+    private List<BookingBatchResultDto> saveBatch(long bookerId, List<RequestBookingDto> requestBookingDtos) {
+        if (requestBookingDtos.size() > MAX_BATCH_SIZE) {
+            throw new ValidationException("A batch may contain at most " + MAX_BATCH_SIZE + " bookings");
+        }
         User booker = userServiceImpl.getUser(bookerId);
-        Item item = itemRepository.findById(requestBookingDto.getItemId())
-                .orElseThrow(() -> new EntityNotFoundException("Item not found"));
+        List<Long> itemIds = requestBookingDtos.stream()
+                .filter(Objects::nonNull)
+                .map(RequestBookingDto::getItemId)
+                .filter(Objects::nonNull)
+                .distinct()
+                .toList();
+        itemLocks.lockUntilCompletion(itemIds);
+        Map<Long, Item> items = itemRepository.findAllById(itemIds).stream()
+                .collect(Collectors.toMap(Item::getId, Function.identity()));
+        List<Booking> saved = new ArrayList<>(requestBookingDtos.size());
+        List<BookingBatchResultDto> results = new ArrayList<>(requestBookingDtos.size());
+        for (int index = 0; index < requestBookingDtos.size(); index++) {
+            RequestBookingDto requestBookingDto = requestBookingDtos.get(index);
+            try {
+                validate(requestBookingDto);
+                Item item = items.get(requestBookingDto.getItemId());
+                if (item == null) {
+                    throw new EntityNotFoundException("Item not found");
+                }
+                saved.add(createBooking(booker, item, requestBookingDto));
+                results.add(BookingBatchResultDto.builder().index(index).build());
+            } catch (ValidationException | EntityNotFoundException e) {
+                saved.add(null);
+                results.add(BookingBatchResultDto.builder().index(index).error(e.getMessage()).build());
+            }
+        }
+        bookingRepository.flush();
+        itemRepository.incrementBookingStamps(saved.stream()
+                .filter(Objects::nonNull)
+                .map(booking -> booking.getItem().getId())
+                .collect(Collectors.toSet()));
+        for (int index = 0; index < results.size(); index++) {
+            Booking booking = saved.get(index);
+            if (booking != null) {
+                results.get(index).setBooking(bookingMapper.mapToBookingDto(booking));
+            }
+        }
+        log.info("Saved {} of {} bookings", saved.stream().filter(Objects::nonNull).count(), results.size());
+        return results;
+    }
+
+    private void validate(RequestBookingDto requestBookingDto) {
+        if (requestBookingDto == null) {
+            throw new ValidationException("Booking must not be null");
+        }
+        Set<ConstraintViolation<RequestBookingDto>> violations = validator.validate(requestBookingDto);
+        if (!violations.isEmpty()) {
+            ConstraintViolation<RequestBookingDto> violation = violations.iterator().next();
+            String path = violation.getPropertyPath().toString();
+            throw new ValidationException(path.isEmpty() ? violation.getMessage()
+                    : path + " " + violation.getMessage());
+        }
+    }
+
+    private Booking createBooking(User booker, Item item, RequestBookingDto requestBookingDto) {
         Booking booking = bookingMapper.mapToBooking(requestBookingDto);
         if (!item.getAvailable()) {
             throw new ValidationException("Item is not available");
         }
-        if (item.getOwner().getId() == bookerId) {
+        if (Objects.equals(item.getOwner().getId(), booker.getId())) {
             throw new EntityNotFoundException("User is not the owner of this booking");
         }
         booking.setBooker(booker);
         booking.setItem(item);
         booking.setStatus(BookingStatus.WAITING);
-        Booking saveBooking = bookingRepository.save(booking);
+        Booking saveBooking = bookingIntervalIndex.reserve(booking, () -> bookingRepository.save(booking));
         booking.setId(saveBooking.getId());
-        log.info("Booking saved: {}", saveBooking);
+        bookingAuditLog.bookingCreated(booking, booker.getId());
+        ownerBookingStats.bookingAdded(booking);
+        availabilityCalendar.bookingOccupies(item.getId(), booking.getStart(), booking.getEnd());
+        availabilityCalendar.invalidate(item.getId());
         return booking;
     }
 
+    /**
+     * Each attempt runs in its own transaction under the item lock. An attempt that read the
+     * booking before another approval committed fails its version check and is retried, so it
+     * sees the new status instead of overwriting it.
+     */
     @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public Booking handleBookingApproval(long ownerId, long bookingId, boolean approved) {
         log.info("Handling booking approval for user ID: {}, bookingId: {}", ownerId, bookingId);
+        return serviceMetrics.record("booking.approve", () -> optimisticRetry.execute(() ->
+                approve(ownerId, bookingId, approved)));
+    }
+
+    private Booking approve(long ownerId, long bookingId, boolean approved) {
         Booking booking = bookingRepository.findById(bookingId)
                 .orElseThrow(() -> new EntityNotFoundException("Booking not found"));
+        itemLocks.lockUntilCompletion(booking.getItem().getId());
         if (booking.getItem().getOwner().getId() != ownerId) {
             throw new AccessDeniedException("You are not allowed to approve this booking");
         }
         if (booking.getStatus() == BookingStatus.APPROVED) {
             throw new ValidationException("The status has already been approved");
         }
+        BookingStatus previousStatus = booking.getStatus();
         booking.setStatus(approved ? BookingStatus.APPROVED : BookingStatus.REJECTED);
-        Booking saveBooking = bookingRepository.save(booking);
-        log.info("The booking status is set to: {}", booking.getStatus());
+        Booking saveBooking = approved && previousStatus == BookingStatus.REJECTED
+                ? bookingIntervalIndex.reserve(booking, () -> bookingRepository.save(booking))
+                : bookingRepository.save(booking);
+        if (!approved) {
+            bookingIntervalIndex.release(saveBooking);
+        }
+        itemRepository.incrementBookingStamps(List.of(saveBooking.getItem().getId()));
+        bookingAuditLog.statusChanged(saveBooking, ownerId);
+        ownerBookingStats.statusChanged(saveBooking, previousStatus);
+        if (approved) {
+            availabilityCalendar.bookingOccupies(saveBooking.getItem().getId(), saveBooking.getStart(),
+                    saveBooking.getEnd());
+        } else {
+            availabilityCalendar.bookingReleased(saveBooking.getItem().getId());
+        }
+        availabilityCalendar.invalidate(saveBooking.getItem().getId());
+        log.info("The booking ID {} status is set to: {}", bookingId, booking.getStatus());
         return saveBooking;
     }
 
     @Override
     @Transactional(readOnly = true)
-    public Booking getUserBookingById(long bookerId, long bookingId) {
+    public BookingDto getUserBookingById(long bookerId, long bookingId) {
         log.info("Get booking ID {} for user ID {} ", bookingId, bookerId);
-        return bookingRepository.getUserBookingById(bookingId, bookerId)
-                .orElseThrow(() -> new EntityNotFoundException("Booking not found"));
+        return serviceMetrics.record("booking.get", () -> bookingRepository.getUserBookingById(bookingId, bookerId)
+                .orElseThrow(() -> new EntityNotFoundException("Booking not found")));
     }
 
     @Override
     @Transactional(readOnly = true)
-    public List<Booking> getAllUserBooking(long userId, State state, Integer from, Integer size) {
+    public String getBookingETag(long userId, long bookingId) {
+        return serviceMetrics.record("booking.version", () -> bookingRepository
+                .getUserBookingVersion(bookingId, userId)
+                .map(BookingVersion::eTag)
+                .orElseThrow(() -> new EntityNotFoundException("Booking not found")));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<BookingDto> getAllUserBooking(long userId, State state, Integer from, Integer size,
+                                              KeysetCursor cursor) {
         log.info("Get all bookings for user ID {} with state {}", userId, state);
-        userServiceImpl.getUser(userId);
-        Pageable pageable = (from != null && size != null)
-                ? PageRequest.of(from / size, size, Sort.by(Sort.Direction.DESC, "start"))
-                : Pageable.unpaged();
-        return switch (state) {
-            case WAITING -> bookingRepository.findByBookerIdAndStatusOrderByStartDesc(userId, BookingStatus.WAITING);
-            case REJECTED -> bookingRepository.findByBookerIdAndStatusOrderByStartDesc(userId, BookingStatus.REJECTED);
-            case CURRENT -> bookingRepository.findAllByBookerIdAndCurrentTime(userId,
-                    LocalDateTime.now());
-            case ALL -> {
-                Page<Booking> bookingsPage = bookingRepository.findAllByBookerIdOrderByStartDesc(userId, pageable);
-                yield bookingsPage.getContent();
-            }
-            case PAST -> bookingRepository.findAllByBookerIdAndEndBeforeOrderByStartDesc(userId,
-                    LocalDateTime.now());
-            case FUTURE -> bookingRepository.findAllByBookerIdAndStartAfterOrderByStartDesc(userId,
-                    LocalDateTime.now());
-        };
+        return serviceMetrics.recordResults("booking.list.booker", state, () -> {
+            userServiceImpl.getUser(userId);
+            return bookingRepository.findBookerBookings(userId, BookingFilter.of(state, LocalDateTime.now()),
+                    Optional.ofNullable(cursor).orElse(KeysetCursor.FIRST), pageOf(from, size, cursor));
+        });
     }
 
     @Override
     @Transactional(readOnly = true)
-    public List<Booking> getAllOwnerBooking(long ownerId, State state, Integer from, Integer size) {
+    public List<BookingDto> getAllOwnerBooking(long ownerId, State state, Integer from, Integer size,
+                                               KeysetCursor cursor) {
         log.info("Get all bookings for owner ID {} with state {}", ownerId, state);
-        userServiceImpl.getUser(ownerId);
-        Pageable pageable = (from != null && size != null)
-                ? PageRequest.of(from / size, size, Sort.by(Sort.Direction.DESC, "start"))
-                : Pageable.unpaged();
-        return switch (state) {
-            case WAITING -> bookingRepository.findAllByOwnerIdAndStatus(ownerId, BookingStatus.WAITING);
-            case REJECTED -> bookingRepository.findAllByOwnerIdAndStatus(ownerId, BookingStatus.REJECTED);
-            case CURRENT -> bookingRepository.findAllByOwnerIdAndCurrentTime(ownerId, LocalDateTime.now());
-            case ALL -> {
-                Page<Booking> bookingsPage = bookingRepository.findAllByOwnerIdOrderByStartDesc(ownerId, pageable);
-                yield bookingsPage.getContent();
+        return serviceMetrics.recordResults("booking.list.owner", state, () -> {
+            userServiceImpl.getUser(ownerId);
+            return bookingRepository.findOwnerBookings(ownerId, BookingFilter.of(state, LocalDateTime.now()),
+                    Optional.ofNullable(cursor).orElse(KeysetCursor.FIRST), pageOf(from, size, cursor));
+        });
+    }
+
+    /**
+     * Hands the owner's bookings to the consumer one by one while the cursor is open.
+     * Rows are projected straight into DTOs, so nothing accumulates in the persistence context.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public long exportOwnerBookings(long ownerId, State state, Consumer<BookingDto> consumer) {
+        log.info("Export bookings for owner ID {} with state {}", ownerId, state);
+        long exported = serviceMetrics.record("booking.export", state, () -> export(ownerId, state, consumer));
+        log.info("Exported {} bookings for owner ID {}", exported, ownerId);
+        return exported;
+    }
+
+    /**
+     * Answers from counters kept per owner instead of counting the bookings, unless a
+     * reconcile is requested.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public BookingStatsDto getOwnerBookingStats(long ownerId, boolean reconcile) {
+        log.info("Get booking stats for owner ID {}, reconcile {}", ownerId, reconcile);
+        return serviceMetrics.record("booking.stats", () -> {
+            userServiceImpl.getUser(ownerId);
+            return reconcile ? ownerBookingStats.reconcile(ownerId) : ownerBookingStats.get(ownerId);
+        });
+    }
+
+    private long export(long ownerId, State state, Consumer<BookingDto> consumer) {
+        long exported = 0;
+        try (Stream<BookingDto> bookings = bookingRepository.streamOwnerBookings(ownerId,
+                BookingFilter.of(state, LocalDateTime.now()))) {
+            for (BookingDto booking : (Iterable<BookingDto>) bookings::iterator) {
+                consumer.accept(booking);
+                exported++;
             }
-            case PAST -> bookingRepository.findAllByOwnerIdAndEndBefore(ownerId,
-                    LocalDateTime.now());
-            case FUTURE -> bookingRepository.findAllByOwnerIdAndStartAfter(ownerId,
-                    LocalDateTime.now());
-        };
+        }
+        return exported;
+    }
+
+    private Pageable pageOf(Integer from, Integer size, KeysetCursor cursor) {
+        if (size == null) {
+            return Pageable.unpaged();
+        }
+        if (cursor != null || from == null) {
+            return PageRequest.of(0, size);
+        }
+        return PageRequest.of(from / size, size);
     }
 
     @Override
     @Transactional(readOnly = true)
     public BookingDtoForItem getBookingForItem(long itemId, String bookingType) {
         log.info("Get booking for item ID {} with time period {}", itemId, bookingType);
-        Booking bookingForItem = switch (bookingType) {
+        return switch (bookingType) {
             case LAST_BOOKING -> bookingRepository.findLastBookingForItem(itemId, LocalDateTime.now(),
                     BookingStatus.REJECTED).orElse(null);
             case NEXT_BOOKING -> bookingRepository.findNextBookingForItem(itemId, LocalDateTime.now(),
                     BookingStatus.REJECTED).orElse(null);
             default -> null;
         };
-        return bookingMapper.mapToBookingDtoForItem(bookingForItem);
     }
 
-    public Map<Long, List<Booking>> getBookingsForItems(List<Long> itemIds) {
-        List<Booking> bookings = bookingRepository.findByItemIdIn(itemIds, BookingStatus.REJECTED);
+    @Override
+    @Transactional(readOnly = true)
+    public Map<Long, List<Booking>> getBookingsForItems(List<Long> itemIds, LocalDateTime now) {
+        List<Booking> bookings = bookingRepository.findLastAndNextByItemIdIn(itemIds, BookingStatus.REJECTED, now);
+        return groupByItemId(bookings);
+    }
+
+    static Map<Long, List<Booking>> groupByItemId(List<Booking> bookings) {
         return bookings.stream().collect(Collectors.groupingBy(Booking::getItemId));
     }
 
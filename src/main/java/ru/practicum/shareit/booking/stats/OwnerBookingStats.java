@@ -0,0 +1,326 @@
+package ru.practicum.shareit.booking.stats;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.booking.dto.BookingStatsDto;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.model.State;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.config.datasource.ReadYourWrites;
+import ru.practicum.shareit.config.datasource.ReplicaRoutingDataSource;
+import ru.practicum.shareit.user.event.UserDeletingEvent;
+import ru.practicum.shareit.util.TransactionCallbacks;
+
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+
+/**
+ * Per-owner booking counts for every {@link State}. An owner's counters are loaded from
+ * {@link BookingRepository} on first use and then kept up to date by the booking service;
+ * bookings move from FUTURE to CURRENT to PAST through a queue of pending transitions that
+ * the sweep and every read drain, so nothing is recounted.
+ * Loaded counters are only kept if no booking transaction of the owner was in flight while
+ * they were counted; otherwise the load is answered once and repeated on the next read, so a
+ * booking committed during a load is neither missed nor counted twice. That check only sees
+ * transactions of this instance, so loads read from the primary, and counters that still came
+ * from a lagging replica are answered but not kept.
+ * {@link #reconcile(long)} recounts the owner and reports any difference.
+ * Counters are kept for at most {@code shareit.booking-stats.maximum-size} owners and dropped after
+ * {@code idle-timeout} without reads; a dropped owner is recounted on the next read.
+ */
+@Slf4j
+@Component
+public class OwnerBookingStats {
+
+    private final BookingRepository bookingRepository;
+    private final Clock clock;
+    private final Cache<Long, OwnerCounters> owners;
+    private final Map<Long, OwnerActivity> activity = new ConcurrentHashMap<>();
+    private final Counter mismatches;
+
+    public OwnerBookingStats(BookingRepository bookingRepository, OwnerBookingStatsProperties properties,
+                             Clock clock, MeterRegistry meterRegistry) {
+        this.bookingRepository = bookingRepository;
+        this.clock = clock;
+        this.owners = Caffeine.newBuilder()
+                .maximumSize(properties.maximumSize())
+                .expireAfterAccess(properties.idleTimeout())
+                .build();
+        this.mismatches = Counter.builder("booking.stats.mismatches")
+                .register(meterRegistry);
+        Gauge.builder("booking.stats.owners", owners, Cache::estimatedSize)
+                .register(meterRegistry);
+    }
+
+    public BookingStatsDto get(long ownerId) {
+        OwnerCounters counters = owners.getIfPresent(ownerId);
+        if (counters == null) {
+            long changes = startLoad(ownerId);
+            OwnerCounters loaded = ReadYourWrites.onPrimary(() -> load(ownerId, now()));
+            counters = finishLoad(ownerId, ReplicaRoutingDataSource.readsReplica() ? -1 : changes, loaded);
+        }
+        return counters.snapshot(now());
+    }
+
+    /**
+     * Recounts the owner from the repository, replaces the counters and logs any drift.
+     */
+    public BookingStatsDto reconcile(long ownerId) {
+        LocalDateTime now = now();
+        OwnerCounters recounted = ReadYourWrites.onPrimary(() -> load(ownerId, now));
+        BookingStatsDto expected = recounted.snapshot(now);
+        if (ReplicaRoutingDataSource.readsReplica()) {
+            return expected;
+        }
+        OwnerCounters previous = owners.asMap().put(ownerId, recounted);
+        if (previous != null) {
+            BookingStatsDto actual = previous.snapshot(now);
+            if (!actual.equals(expected)) {
+                mismatches.increment();
+                log.warn("Booking stats of owner ID {} drifted: stored {}, recounted {}", ownerId, actual, expected);
+            }
+        }
+        return expected;
+    }
+
+    public void bookingAdded(Booking booking) {
+        long ownerId = booking.getItem().getOwner().getId();
+        BookingPeriod period = new BookingPeriod(ownerId, booking.getId(), booking.getStart(), booking.getEnd());
+        BookingStatus status = booking.getStatus();
+        changeStarted(ownerId);
+        TransactionCallbacks.afterCommit(() -> {
+            OwnerCounters counters = owners.getIfPresent(ownerId);
+            if (counters != null) {
+                counters.add(period, status, now());
+            }
+        });
+        TransactionCallbacks.afterCompletion(() -> changeFinished(ownerId));
+    }
+
+    public void statusChanged(Booking booking, BookingStatus previousStatus) {
+        long ownerId = booking.getItem().getOwner().getId();
+        BookingStatus status = booking.getStatus();
+        changeStarted(ownerId);
+        TransactionCallbacks.afterCommit(() -> {
+            OwnerCounters counters = owners.getIfPresent(ownerId);
+            if (counters != null) {
+                counters.changeStatus(previousStatus, status);
+            }
+        });
+        TransactionCallbacks.afterCompletion(() -> changeFinished(ownerId));
+    }
+
+    @Scheduled(fixedDelayString = "${shareit.booking-stats.sweep-interval:PT1M}")
+    public void sweep() {
+        LocalDateTime now = now();
+        owners.asMap().values().forEach(counters -> counters.rollOver(now));
+    }
+
+    /**
+     * Deleting a user cascades to the user's own items and to their bookings of other owners'
+     * items; those owners are handled like a booking change and dropped once the delete commits.
+     */
+    @EventListener
+    public void onUserDeleting(UserDeletingEvent event) {
+        List<Long> ownerIds = Stream.concat(Stream.of(event.userId()),
+                        bookingRepository.findOwnerIdsBookedBy(event.userId()).stream())
+                .distinct()
+                .toList();
+        ownerIds.forEach(this::changeStarted);
+        TransactionCallbacks.afterCommit(() -> owners.invalidateAll(ownerIds));
+        TransactionCallbacks.afterCompletion(() -> ownerIds.forEach(this::changeFinished));
+    }
+
+    // Called inside the booking transaction, before the change can be visible to a load.
+    private void changeStarted(long ownerId) {
+        activity.compute(ownerId, (id, current) -> {
+            OwnerActivity next = current == null ? new OwnerActivity() : current;
+            next.pending++;
+            next.changes++;
+            return next;
+        });
+    }
+
+    private void changeFinished(long ownerId) {
+        activity.computeIfPresent(ownerId, (id, current) -> {
+            current.pending--;
+            return current.idle() ? null : current;
+        });
+    }
+
+    /**
+     * Returns the owner's change count, or -1 if a change is already in flight and the load
+     * must not be kept.
+     */
+    private long startLoad(long ownerId) {
+        long[] changes = new long[1];
+        activity.compute(ownerId, (id, current) -> {
+            OwnerActivity next = current == null ? new OwnerActivity() : current;
+            next.loads++;
+            changes[0] = next.pending > 0 ? -1 : next.changes;
+            return next;
+        });
+        return changes[0];
+    }
+
+    // Keeping the counters happens under the same map bin as changeStarted, so a change either
+    // shows up in the check here or starts after the counters are in place and updates them.
+    private OwnerCounters finishLoad(long ownerId, long changes, OwnerCounters loaded) {
+        OwnerCounters[] result = {loaded};
+        activity.computeIfPresent(ownerId, (id, current) -> {
+            if (changes >= 0 && current.pending == 0 && current.changes == changes) {
+                OwnerCounters previous = owners.asMap().putIfAbsent(ownerId, loaded);
+                if (previous != null) {
+                    result[0] = previous;
+                }
+            }
+            current.loads--;
+            return current.idle() ? null : current;
+        });
+        return result[0];
+    }
+
+    private LocalDateTime now() {
+        return LocalDateTime.now(clock);
+    }
+
+    private OwnerCounters load(long ownerId, LocalDateTime now) {
+        OwnerCounters counters = new OwnerCounters();
+        for (OwnerStatusCount count : bookingRepository.countOwnerBookingsByStatus(ownerId, now)) {
+            counters.addCount(count);
+        }
+        bookingRepository.findOwnerBookingPeriods(ownerId, now)
+                .forEach(period -> counters.schedule(period, now));
+        return counters;
+    }
+
+    /**
+     * Booking transactions of an owner that have not completed yet and loads in progress;
+     * only present while either is non-zero.
+     */
+    private static final class OwnerActivity {
+        private int pending;
+        private int loads;
+        private long changes;
+
+        private boolean idle() {
+            return pending == 0 && loads == 0;
+        }
+    }
+
+    private record Transition(LocalDateTime at, long bookingId, State from, State to) {
+
+        private static final Comparator<Transition> ORDER = Comparator.comparing(Transition::at)
+                .thenComparingLong(Transition::bookingId);
+    }
+
+    private static final class OwnerCounters {
+        private final ReentrantLock lock = new ReentrantLock();
+        private final long[] counts = new long[State.values().length];
+        private final PriorityQueue<Transition> transitions = new PriorityQueue<>(Transition.ORDER);
+
+        private void addCount(OwnerStatusCount count) {
+            counts[State.ALL.ordinal()] += count.total();
+            counts[State.PAST.ordinal()] += count.past();
+            counts[State.FUTURE.ordinal()] += count.future();
+            counts[State.CURRENT.ordinal()] += count.total() - count.past() - count.future();
+            countStatus(count.status(), count.total());
+        }
+
+        private void add(BookingPeriod period, BookingStatus status, LocalDateTime now) {
+            lock.lock();
+            try {
+                rollOver(now);
+                counts[State.ALL.ordinal()]++;
+                counts[phase(period, now).ordinal()]++;
+                countStatus(status, 1);
+                schedule(period, now);
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private void changeStatus(BookingStatus from, BookingStatus to) {
+            lock.lock();
+            try {
+                countStatus(from, -1);
+                countStatus(to, 1);
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private void schedule(BookingPeriod period, LocalDateTime now) {
+            if (period.start().isAfter(now)) {
+                transitions.add(new Transition(period.start(), period.bookingId(), State.FUTURE, State.CURRENT));
+            }
+            if (!period.end().isBefore(now)) {
+                transitions.add(new Transition(period.end(), period.bookingId(), State.CURRENT, State.PAST));
+            }
+        }
+
+        private void rollOver(LocalDateTime now) {
+            lock.lock();
+            try {
+                while (!transitions.isEmpty() && transitions.peek().at().isBefore(now)) {
+                    Transition transition = transitions.poll();
+                    counts[transition.from().ordinal()]--;
+                    counts[transition.to().ordinal()]++;
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private BookingStatsDto snapshot(LocalDateTime now) {
+            long[] copy;
+            lock.lock();
+            try {
+                rollOver(now);
+                copy = Arrays.copyOf(counts, counts.length);
+            } finally {
+                lock.unlock();
+            }
+            return BookingStatsDto.builder()
+                    .all(copy[State.ALL.ordinal()])
+                    .current(copy[State.CURRENT.ordinal()])
+                    .past(copy[State.PAST.ordinal()])
+                    .future(copy[State.FUTURE.ordinal()])
+                    .waiting(copy[State.WAITING.ordinal()])
+                    .rejected(copy[State.REJECTED.ordinal()])
+                    .build();
+        }
+
+        private void countStatus(BookingStatus status, long delta) {
+            switch (status) {
+                case WAITING -> counts[State.WAITING.ordinal()] += delta;
+                case REJECTED -> counts[State.REJECTED.ordinal()] += delta;
+                default -> {
+                }
+            }
+        }
+
+        private static State phase(BookingPeriod period, LocalDateTime now) {
+            if (period.start().isAfter(now)) {
+                return State.FUTURE;
+            }
+            return period.end().isBefore(now) ? State.PAST : State.CURRENT;
+        }
+    }
+}
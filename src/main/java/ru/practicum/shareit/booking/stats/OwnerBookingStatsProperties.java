@@ -0,0 +1,11 @@
+package ru.practicum.shareit.booking.stats;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+@ConfigurationProperties("shareit.booking-stats")
+public record OwnerBookingStatsProperties(@DefaultValue("10000") long maximumSize,
+                                          @DefaultValue("1h") Duration idleTimeout) {
+}
@@ -0,0 +1,9 @@
+package ru.practicum.shareit.booking.stats;
+
+import ru.practicum.shareit.booking.model.BookingStatus;
+
+/**
+ * Number of an owner's bookings with one status, split by where they are relative to now.
+ */
+public record OwnerStatusCount(Long ownerId, BookingStatus status, Long total, Long past, Long future) {
+}
@@ -0,0 +1,11 @@
+package ru.practicum.shareit.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+@ConfigurationProperties("shareit.web.concurrency")
+public record ConcurrencyLimitProperties(@DefaultValue("0") int maxRequests,
+                                         @DefaultValue("2s") Duration acquireTimeout) {
+}
@@ -0,0 +1,71 @@
+package ru.practicum.shareit.config;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+/**
+ * Counts the SQL statements of every controller call against its {@link QueryBudget}.
+ * The final count is left in the {@link #QUERY_COUNT} request attribute and recorded as
+ * {@code shareit.request.statements} per method and URI pattern.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class QueryBudgetInterceptor implements AsyncHandlerInterceptor {
+
+    public static final String QUERY_COUNT = QueryBudgetInterceptor.class.getName() + ".count";
+    private static final String BUDGET = QueryBudgetInterceptor.class.getName() + ".budget";
+
+    private final QueryCounter queryCounter;
+    private final QueryBudgetProperties properties;
+    private final MeterRegistry meterRegistry;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (properties.mode() == QueryBudgetProperties.Mode.OFF || !(handler instanceof HandlerMethod method)) {
+            return true;
+        }
+        QueryBudget queryBudget = method.getMethodAnnotation(QueryBudget.class);
+        int budget = queryBudget == null ? properties.defaultBudget() : queryBudget.value();
+        request.setAttribute(BUDGET, budget);
+        queryCounter.start(endpoint(request), budget, properties.mode() == QueryBudgetProperties.Mode.FAIL);
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                Exception ex) {
+        int statements = queryCounter.stop();
+        if (statements < 0) {
+            return;
+        }
+        request.setAttribute(QUERY_COUNT, statements);
+        DistributionSummary.builder("shareit.request.statements")
+                .tag("method", request.getMethod())
+                .tag("uri", String.valueOf(request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE)))
+                .register(meterRegistry)
+                .record(statements);
+        int budget = (int) request.getAttribute(BUDGET);
+        if (statements > budget) {
+            log.warn("{} ran {} SQL statements, budget is {}", endpoint(request), statements, budget);
+        }
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response,
+                                               Object handler) {
+        queryCounter.stop();
+    }
+
+    private static String endpoint(HttpServletRequest request) {
+        return request.getMethod() + " " + request.getRequestURI();
+    }
+}
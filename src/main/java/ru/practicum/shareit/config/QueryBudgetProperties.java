@@ -0,0 +1,13 @@
+package ru.practicum.shareit.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+@ConfigurationProperties("shareit.query-budget")
+public record QueryBudgetProperties(@DefaultValue("LOG") Mode mode,
+                                    @DefaultValue("10") int defaultBudget) {
+
+    public enum Mode {
+        OFF, LOG, FAIL
+    }
+}
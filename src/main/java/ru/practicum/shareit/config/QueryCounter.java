@@ -0,0 +1,61 @@
+package ru.practicum.shareit.config;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.erorr.exception.QueryBudgetExceededException;
+
+import java.util.Map;
+
+/**
+ * Counts the statements Hibernate prepares on the current thread between {@link #start} and
+ * {@link #stop}. Statements outside a counted request, e.g. startup or async work, are ignored.
+ */
+@Component
+public class QueryCounter implements StatementInspector, HibernatePropertiesCustomizer {
+
+    private final ThreadLocal<Count> current = new ThreadLocal<>();
+
+    @Override
+    public void customize(Map<String, Object> hibernateProperties) {
+        hibernateProperties.put(AvailableSettings.STATEMENT_INSPECTOR, this);
+    }
+
+    @Override
+    public String inspect(String sql) {
+        Count count = current.get();
+        if (count != null && ++count.statements > count.budget && count.failOnExceed) {
+            current.remove();
+            throw new QueryBudgetExceededException(count.endpoint + " exceeded its budget of " + count.budget
+                    + " SQL statements with: " + sql);
+        }
+        return sql;
+    }
+
+    public void start(String endpoint, int budget, boolean failOnExceed) {
+        current.set(new Count(endpoint, budget, failOnExceed));
+    }
+
+    /**
+     * @return the number of statements since {@link #start}, or -1 if nothing was being counted.
+     */
+    public int stop() {
+        Count count = current.get();
+        current.remove();
+        return count == null ? -1 : count.statements;
+    }
+
+    private static final class Count {
+        private final String endpoint;
+        private final int budget;
+        private final boolean failOnExceed;
+        private int statements;
+
+        private Count(String endpoint, int budget, boolean failOnExceed) {
+            this.endpoint = endpoint;
+            this.budget = budget;
+            this.failOnExceed = failOnExceed;
+        }
+    }
+}
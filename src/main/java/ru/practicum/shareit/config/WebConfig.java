@@ -0,0 +1,22 @@
+package ru.practicum.shareit.config;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import ru.practicum.shareit.config.datasource.ReadYourWrites;
+
+@Configuration
+@RequiredArgsConstructor
+public class WebConfig implements WebMvcConfigurer {
+
+    private final QueryBudgetInterceptor queryBudgetInterceptor;
+    private final ObjectProvider<ReadYourWrites> readYourWrites;
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        readYourWrites.ifAvailable(registry::addInterceptor);
+        registry.addInterceptor(queryBudgetInterceptor);
+    }
+}
@@ -0,0 +1,62 @@
+package ru.practicum.shareit.config.cache;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import javax.cache.spi.CachingProvider;
+import java.net.URI;
+import java.util.OptionalLong;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * JCache (Caffeine) regions behind the Hibernate second-level cache. Every region is created
+ * here with its size bound; Hibernate is set to fail on a region that is not listed.
+ */
+@Configuration
+public class EntityCacheConfig {
+
+    public static final String ITEM_REGION = "item";
+    public static final String USER_REGION = "user";
+    public static final String OWNER_ITEMS_REGION = "item-owner-list";
+    private static final String QUERY_RESULTS_REGION = "default-query-results-region";
+    private static final String UPDATE_TIMESTAMPS_REGION = "default-update-timestamps-region";
+    private static final AtomicInteger CACHE_MANAGERS = new AtomicInteger();
+
+    @Bean
+    public CacheManager entityCacheManager(EntityCacheProperties properties) {
+        // A manager of its own per application context, so test contexts never share regions.
+        CachingProvider provider = Caching.getCachingProvider(CaffeineCachingProvider.class.getName());
+        CacheManager cacheManager = provider.getCacheManager(
+                URI.create("shareit:entity-cache-" + CACHE_MANAGERS.incrementAndGet()), getClass().getClassLoader());
+        create(cacheManager, ITEM_REGION, properties.itemsMaximumSize(), properties);
+        create(cacheManager, USER_REGION, properties.usersMaximumSize(), properties);
+        create(cacheManager, OWNER_ITEMS_REGION, properties.ownerItemsMaximumSize(), properties);
+        create(cacheManager, QUERY_RESULTS_REGION, properties.ownerItemsMaximumSize(), properties);
+        // Query results are only valid against these timestamps, so they are never evicted.
+        cacheManager.createCache(UPDATE_TIMESTAMPS_REGION, new CaffeineConfiguration<>());
+        return cacheManager;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer entityCacheCustomizer(CacheManager entityCacheManager) {
+        return hibernateProperties -> {
+            hibernateProperties.put(ConfigSettings.CACHE_MANAGER, entityCacheManager);
+            hibernateProperties.put(ConfigSettings.MISSING_CACHE_STRATEGY, "fail");
+        };
+    }
+
+    private static void create(CacheManager cacheManager, String region, long maximumSize,
+                               EntityCacheProperties properties) {
+        CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+        configuration.setMaximumSize(OptionalLong.of(maximumSize));
+        configuration.setExpireAfterWrite(OptionalLong.of(properties.ttl().toNanos()));
+        configuration.setStatisticsEnabled(true);
+        cacheManager.createCache(region, configuration);
+    }
+}
@@ -0,0 +1,38 @@
+package ru.practicum.shareit.config.cache;
+
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.SessionFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.event.UserDeletedEvent;
+
+import java.util.Collection;
+
+/**
+ * Deleting a user removes their items, bookings and comments through {@code ON DELETE CASCADE},
+ * which Hibernate never sees. The user's items and owner item lists are dropped from the
+ * second-level cache once the delete has committed. Native updates of single items, such as the
+ * versions bumped for a renamed comment author, evict only those items through
+ * {@link #evictItems(Collection)} once they have committed too: evicted any earlier, a concurrent
+ * read could put the uncommitted row's old version straight back.
+ */
+@Component
+@RequiredArgsConstructor
+public class EntityCacheEvictor {
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    @TransactionalEventListener
+    public void onUserDeleted(UserDeletedEvent event) {
+        org.hibernate.Cache cache = entityManagerFactory.unwrap(SessionFactory.class).getCache();
+        cache.evictEntityData(Item.class);
+        cache.evictQueryRegion(EntityCacheConfig.OWNER_ITEMS_REGION);
+    }
+
+    public void evictItems(Collection<Long> itemIds) {
+        org.hibernate.Cache cache = entityManagerFactory.unwrap(SessionFactory.class).getCache();
+        itemIds.forEach(itemId -> cache.evictEntityData(Item.class, itemId));
+    }
+}
@@ -0,0 +1,13 @@
+package ru.practicum.shareit.config.cache;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+@ConfigurationProperties("shareit.cache.entities")
+public record EntityCacheProperties(@DefaultValue("50000") long itemsMaximumSize,
+                                    @DefaultValue("10000") long usersMaximumSize,
+                                    @DefaultValue("5000") long ownerItemsMaximumSize,
+                                    @DefaultValue("10m") Duration ttl) {
+}
@@ -0,0 +1,81 @@
+package ru.practicum.shareit.config.datasource;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import java.util.function.Supplier;
+
+/**
+ * Pins a request to the primary when it writes, or when the same user wrote within the
+ * read-your-writes window, so a lagging replica never hides a user's own changes. Only the most
+ * recent writers are remembered, so a flood of user ids cannot grow the map without bound.
+ * Loads that fill long-lived caches run through {@link #onPrimary(Supplier)}, so a replica that
+ * has not caught up with another user's write cannot put an old row into a cache.
+ */
+public class ReadYourWrites implements HandlerInterceptor {
+
+    public static final String USER_HEADER = "X-Sharer-User-Id";
+
+    private static final ThreadLocal<Boolean> PINNED = new ThreadLocal<>();
+
+    private final Cache<String, Boolean> recentWriters;
+
+    public ReadYourWrites(ReplicaProperties properties) {
+        this.recentWriters = Caffeine.newBuilder()
+                .expireAfterWrite(properties.readYourWritesWindow())
+                .maximumSize(properties.readYourWritesMaxUsers())
+                .build();
+    }
+
+    public static boolean isPinned() {
+        return Boolean.TRUE.equals(PINNED.get());
+    }
+
+    /**
+     * Runs the action with the current thread pinned to the primary. A transaction that already
+     * holds a replica connection keeps it; callers check
+     * {@link ReplicaRoutingDataSource#readsReplica()} before caching what the action returned.
+     */
+    public static <T> T onPrimary(Supplier<T> action) {
+        Boolean previous = PINNED.get();
+        PINNED.set(true);
+        try {
+            return action.get();
+        } finally {
+            if (previous == null) {
+                PINNED.remove();
+            } else {
+                PINNED.set(previous);
+            }
+        }
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        String userId = request.getHeader(USER_HEADER);
+        if (writes(request) || userId != null && recentWriters.getIfPresent(userId) != null) {
+            PINNED.set(true);
+        }
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                Exception ex) {
+        PINNED.remove();
+        String userId = request.getHeader(USER_HEADER);
+        if (userId != null && writes(request)) {
+            recentWriters.put(userId, true);
+        }
+    }
+
+    private static boolean writes(HttpServletRequest request) {
+        HttpMethod method = HttpMethod.valueOf(request.getMethod());
+        return !HttpMethod.GET.equals(method) && !HttpMethod.HEAD.equals(method)
+                && !HttpMethod.OPTIONS.equals(method);
+    }
+}
@@ -0,0 +1,27 @@
+package ru.practicum.shareit.config.datasource;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Read replicas behind the primary datasource. {@code lagQuery} must return the replica lag in
+ * seconds, e.g. {@code select coalesce(extract(epoch from now() - pg_last_xact_replay_timestamp()), 0)}
+ * on PostgreSQL; without it a replica is healthy as long as it accepts connections.
+ */
+@ConfigurationProperties("shareit.datasource")
+public record ReplicaProperties(@DefaultValue List<Replica> replicas,
+                                @DefaultValue("1s") Duration maxLag,
+                                @DefaultValue("5s") Duration readYourWritesWindow,
+                                @DefaultValue("100000") long readYourWritesMaxUsers,
+                                String lagQuery) {
+
+    public record Replica(String url,
+                          String username,
+                          String password,
+                          @DefaultValue("10") int maximumPoolSize,
+                          @DefaultValue("2s") Duration connectionTimeout) {
+    }
+}
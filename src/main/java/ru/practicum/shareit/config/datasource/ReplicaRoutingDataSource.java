@@ -0,0 +1,170 @@
+package ru.practicum.shareit.config.datasource;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.util.TransactionCallbacks;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+/**
+ * Hands out replica connections, round-robin over the healthy replicas, inside read-only
+ * transactions of requests that {@link ReadYourWrites} has not pinned, and primary connections
+ * otherwise. A replica is unhealthy while it refuses connections or lags more than the tolerance;
+ * with no healthy replica reads fall back to the primary. Must sit behind a
+ * {@link LazyConnectionDataSourceProxy}, which fetches the connection on the first statement,
+ * after the transaction has been marked read-only. A transaction that was handed a replica
+ * connection is flagged until it completes, see {@link #readsReplica()}.
+ */
+@Slf4j
+public class ReplicaRoutingDataSource extends AbstractDataSource implements AutoCloseable {
+
+    private static final ThreadLocal<Boolean> READS_REPLICA = new ThreadLocal<>();
+
+    private final DataSource primary;
+    private final List<Replica> replicas;
+    private final Duration maxLag;
+    private final String lagQuery;
+    private final AtomicInteger next = new AtomicInteger();
+    private final Counter primaryRoutes;
+    private final Counter replicaRoutes;
+    private final Counter fallbacks;
+
+    public ReplicaRoutingDataSource(DataSource primary, List<DataSource> replicas, Duration maxLag, String lagQuery,
+                                    MeterRegistry meterRegistry) {
+        this.primary = primary;
+        this.replicas = IntStream.range(0, replicas.size())
+                .mapToObj(index -> new Replica(index, replicas.get(index)))
+                .toList();
+        this.maxLag = maxLag;
+        this.lagQuery = lagQuery;
+        this.primaryRoutes = routes(meterRegistry, "primary");
+        this.replicaRoutes = routes(meterRegistry, "replica");
+        this.fallbacks = routes(meterRegistry, "fallback");
+        Gauge.builder("shareit.datasource.replicas.healthy", this, ReplicaRoutingDataSource::healthyReplicas)
+                .register(meterRegistry);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly() || ReadYourWrites.isPinned()) {
+            primaryRoutes.increment();
+            return primary.getConnection();
+        }
+        int first = Math.floorMod(next.getAndIncrement(), replicas.size());
+        for (int i = 0; i < replicas.size(); i++) {
+            Replica replica = replicas.get((first + i) % replicas.size());
+            if (!replica.healthy) {
+                continue;
+            }
+            try {
+                Connection connection = replica.dataSource.getConnection();
+                replicaRoutes.increment();
+                markReadingReplica();
+                return connection;
+            } catch (SQLException | RuntimeException e) {
+                replica.healthy = false;
+                log.warn("Replica {} is unavailable, routing reads elsewhere: {}", replica.index, e.getMessage());
+            }
+        }
+        fallbacks.increment();
+        return primary.getConnection();
+    }
+
+    /**
+     * Whether the current transaction reads from a replica, which may lag behind the primary, so
+     * what it read must not be kept in a cache.
+     */
+    public static boolean readsReplica() {
+        return Boolean.TRUE.equals(READS_REPLICA.get());
+    }
+
+    /**
+     * Explicit credentials are the primary's, the replicas have their own, so such connections
+     * always come from the primary.
+     */
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        primaryRoutes.increment();
+        return primary.getConnection(username, password);
+    }
+
+    /**
+     * Marks each replica healthy if it answers and its lag is within the tolerance.
+     */
+    @Scheduled(fixedDelayString = "${shareit.datasource.health-check-interval:PT5S}")
+    public void checkHealth() {
+        for (Replica replica : replicas) {
+            boolean healthy;
+            try (Connection connection = replica.dataSource.getConnection()) {
+                healthy = connection.isValid(2) && lagOf(connection) <= maxLag.toMillis() / 1000.0;
+            } catch (SQLException | RuntimeException e) {
+                healthy = false;
+            }
+            if (healthy != replica.healthy) {
+                log.info("Replica {} is now {}", replica.index, healthy ? "healthy" : "unhealthy");
+            }
+            replica.healthy = healthy;
+        }
+    }
+
+    @Override
+    public void close() throws Exception {
+        for (Replica replica : replicas) {
+            if (replica.dataSource instanceof AutoCloseable closeable) {
+                closeable.close();
+            }
+        }
+    }
+
+    public int healthyReplicas() {
+        return (int) replicas.stream().filter(replica -> replica.healthy).count();
+    }
+
+    private static void markReadingReplica() {
+        if (TransactionSynchronizationManager.isSynchronizationActive() && !readsReplica()) {
+            READS_REPLICA.set(true);
+            TransactionCallbacks.afterCompletion(READS_REPLICA::remove);
+        }
+    }
+
+    private double lagOf(Connection connection) throws SQLException {
+        if (lagQuery == null || lagQuery.isBlank()) {
+            return 0;
+        }
+        try (Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery(lagQuery)) {
+            return resultSet.next() ? resultSet.getDouble(1) : Double.MAX_VALUE;
+        }
+    }
+
+    private static Counter routes(MeterRegistry meterRegistry, String target) {
+        return Counter.builder("shareit.datasource.routes")
+                .tag("target", target)
+                .register(meterRegistry);
+    }
+
+    private static final class Replica {
+        private final int index;
+        private final DataSource dataSource;
+        private volatile boolean healthy = true;
+
+        private Replica(int index, DataSource dataSource) {
+            this.index = index;
+            this.dataSource = dataSource;
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package ru.practicum.shareit.config.datasource;
+
+import jakarta.persistence.CacheStoreMode;
+import org.springframework.orm.jpa.EntityManagerHolder;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Keeps read-only transactions that may be routed to a replica from putting what they load into
+ * the second-level cache; they still read from it. Entries and query results are only stored by
+ * transactions on the primary, so a lagging replica cannot leave old rows in the cache after it
+ * has caught up. The store mode is set on every begin because an open-in-view entity manager
+ * outlives a single transaction.
+ */
+public class ReplicaTransactionManager extends JpaTransactionManager {
+
+    private static final String STORE_MODE = "jakarta.persistence.cache.storeMode";
+
+    @Override
+    protected void doBegin(Object transaction, TransactionDefinition definition) {
+        super.doBegin(transaction, definition);
+        if (TransactionSynchronizationManager.getResource(obtainEntityManagerFactory())
+                instanceof EntityManagerHolder holder) {
+            holder.getEntityManager().setProperty(STORE_MODE, definition.isReadOnly() && !ReadYourWrites.isPinned()
+                    ? CacheStoreMode.BYPASS
+                    : CacheStoreMode.USE);
+        }
+    }
+}
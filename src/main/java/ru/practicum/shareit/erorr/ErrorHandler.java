@@ -1,6 +1,7 @@
 package ru.practicum.shareit.erorr;
 
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.ConcurrencyFailureException;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.MethodArgumentNotValidException;
@@ -10,6 +11,8 @@ import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 import ru.practicum.shareit.erorr.exception.AccessDeniedException;
 import ru.practicum.shareit.erorr.exception.EntityNotFoundException;
+import ru.practicum.shareit.erorr.exception.PreconditionFailedException;
+import ru.practicum.shareit.erorr.exception.QueryBudgetExceededException;
 import ru.practicum.shareit.erorr.exception.ValidationException;
 import ru.practicum.shareit.erorr.model.ErrorResponse;
 
@@ -31,6 +34,20 @@ public class ErrorHandler {
         return new ErrorResponse("Conflict: this value already exists in the database");
     }
 
+    @ExceptionHandler
+    @ResponseStatus(HttpStatus.CONFLICT)
+    public ErrorResponse handleConcurrentUpdate(final ConcurrencyFailureException e) {
+        log.warn(e.getMessage());
+        return new ErrorResponse("Conflict: the entity was modified by another request");
+    }
+
+    @ExceptionHandler
+    @ResponseStatus(HttpStatus.PRECONDITION_FAILED)
+    public ErrorResponse handlePreconditionFailed(final PreconditionFailedException e) {
+        log.warn(e.getMessage());
+        return new ErrorResponse(e.getMessage());
+    }
+
     @ExceptionHandler
     @ResponseStatus(HttpStatus.FORBIDDEN)
     public ErrorResponse handleAccessDeniedException(final AccessDeniedException e) {
@@ -38,6 +55,13 @@ public class ErrorHandler {
         return new ErrorResponse(e.getMessage());
     }
 
+    @ExceptionHandler
+    @ResponseStatus(HttpStatus.INTERNAL_SERVER_ERROR)
+    public ErrorResponse handleQueryBudgetExceeded(final QueryBudgetExceededException e) {
+        log.error(e.getMessage());
+        return new ErrorResponse(e.getMessage());
+    }
+
     @ExceptionHandler({ValidationException.class,
             MissingServletRequestParameterException.class,
             MethodArgumentNotValidException.class})
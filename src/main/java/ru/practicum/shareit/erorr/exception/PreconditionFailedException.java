@@ -0,0 +1,7 @@
+package ru.practicum.shareit.erorr.exception;
+
+public class PreconditionFailedException extends RuntimeException {
+    public PreconditionFailedException(String message) {
+        super(message);
+    }
+}
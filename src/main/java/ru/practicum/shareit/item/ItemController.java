@@ -1,7 +1,13 @@
 package ru.practicum.shareit.item;
 
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.PositiveOrZero;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -11,14 +17,28 @@ import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import ru.practicum.shareit.config.QueryBudget;
+import ru.practicum.shareit.item.availability.AvailabilityProperties;
 import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemWithBookingsDto;
+import ru.practicum.shareit.item.search.ItemSearchProperties;
+import ru.practicum.shareit.item.search.SearchCursor;
+import ru.practicum.shareit.item.search.SearchPage;
+import ru.practicum.shareit.item.service.CommentProperties;
 import ru.practicum.shareit.item.service.ItemService;
 import ru.practicum.shareit.mapper.CommentMapper;
 import ru.practicum.shareit.mapper.ItemMapper;
+import ru.practicum.shareit.util.EntityTags;
+import ru.practicum.shareit.util.KeysetCursor;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
+
+import static java.time.temporal.ChronoUnit.MINUTES;
 
 @RestController
 @RequestMapping("/items")
@@ -28,38 +48,96 @@ public class ItemController {
     private final ItemService itemServiceImpl;
     private final ItemMapper itemMapper;
     private final CommentMapper commentMapper;
+    private final AvailabilityProperties availabilityProperties;
+    private final ItemSearchProperties itemSearchProperties;
+    private final CommentProperties commentProperties;
 
     @GetMapping
+    @QueryBudget(3)
     public List<ItemWithBookingsDto> getAllOwnerItems(@RequestHeader("X-Sharer-User-Id") long userId) {
         return itemServiceImpl.getAllOwnerItems(userId);
     }
 
     @GetMapping("/{itemId}")
-    public ItemWithBookingsDto getItem(@RequestHeader("X-Sharer-User-Id") long userId, @PathVariable long itemId) {
-        return itemServiceImpl.getItem(userId, itemId);
+    @QueryBudget(5)
+    public ResponseEntity<ItemWithBookingsDto> getItem(@RequestHeader("X-Sharer-User-Id") long userId,
+                                                       @PathVariable long itemId, WebRequest request,
+                                                       HttpServletResponse response) {
+        String eTag = itemServiceImpl.getItemETag(userId, itemId);
+        if (request.checkNotModified(eTag)) {
+            return null;
+        }
+        ItemWithBookingsDto item = itemServiceImpl.getItem(userId, itemId);
+        // A write may have committed since the check, which has already set its tag on the response,
+        // so the tag is replaced with the one read together with the body.
+        response.setHeader(HttpHeaders.ETAG, item.getItemVersion().eTag(userId));
+        return ResponseEntity.ok(item);
+    }
+
+    @GetMapping("/{itemId}/availability")
+    @QueryBudget(2)
+    public ItemAvailabilityDto getAvailability(@PathVariable long itemId,
+                                               @RequestParam(required = false)
+                                               @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+                                               @RequestParam(required = false)
+                                               @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        LocalDateTime start = Optional.ofNullable(from).orElseGet(() -> LocalDateTime.now().truncatedTo(MINUTES));
+        LocalDateTime end = Optional.ofNullable(to).orElseGet(() -> start.plus(availabilityProperties.defaultRange()));
+        return itemServiceImpl.getAvailability(itemId, start, end);
+    }
+
+    @GetMapping("/{itemId}/comments")
+    @QueryBudget(2)
+    public ResponseEntity<List<CommentDto>> getItemComments(@PathVariable long itemId,
+                                                            @Positive @RequestParam(required = false) Integer size,
+                                                            @RequestParam(required = false) String cursor) {
+        int pageSize = Optional.ofNullable(size).orElse(commentProperties.defaultPageSize());
+        List<CommentDto> comments = itemServiceImpl.getItemComments(itemId, pageSize, KeysetCursor.decode(cursor));
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (comments.size() == pageSize) {
+            CommentDto last = comments.getLast();
+            response.header(KeysetCursor.HEADER, new KeysetCursor(last.getCreated(), last.getId()).encode());
+        }
+        return response.body(comments);
     }
 
     @GetMapping("/search")
-    public List<ItemDto> getItemsByText(@RequestParam String text) {
-        return itemServiceImpl.getItemsByText(text).stream().map(itemMapper::mapToItemDto).toList();
+    @QueryBudget(1)
+    public ResponseEntity<List<ItemDto>> getItemsByText(@RequestParam String text,
+                                                        @PositiveOrZero @RequestParam(defaultValue = "0") int from,
+                                                        @Positive @RequestParam(required = false) Integer size,
+                                                        @RequestParam(required = false) String cursor) {
+        SearchPage page = itemServiceImpl.getItemsByText(text, from,
+                Optional.ofNullable(size).orElse(itemSearchProperties.defaultPageSize()), SearchCursor.decode(cursor));
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.next() != null) {
+            response.header(KeysetCursor.HEADER, page.next().encode());
+        }
+        return response.body(page.items());
     }
 
     @PostMapping
+    @QueryBudget(3)
     public ItemDto addItem(@RequestHeader("X-Sharer-User-Id") long userId, @Valid @RequestBody ItemDto itemDto) {
         return itemMapper.mapToItemDto(itemServiceImpl.addItem(userId, itemDto));
     }
 
     @PostMapping("/{itemId}/comment")
+    @QueryBudget(5)
     public CommentDto addComment(@RequestHeader("X-Sharer-User-Id") long userId,
                                  @PathVariable long itemId, @Valid @RequestBody CommentDto commentDto) {
         return commentMapper.mapToCommentDto(itemServiceImpl.addComment(userId, itemId, commentDto));
     }
 
     @PatchMapping("/{itemId}")
-    public ItemDto updateItem(@RequestHeader("X-Sharer-User-Id") long userId,
-                              @PathVariable long itemId,
-                              @RequestBody ItemDto itemDto) {
-
-        return itemMapper.mapToItemDto(itemServiceImpl.updateItem(userId, itemId, itemDto));
+    @QueryBudget(4)
+    public ResponseEntity<ItemDto> updateItem(@RequestHeader("X-Sharer-User-Id") long userId,
+                                              @RequestHeader(value = HttpHeaders.IF_MATCH, required = false)
+                                              String ifMatch,
+                                              @PathVariable long itemId,
+                                              @RequestBody ItemDto itemDto) {
+        ItemDto updated = itemMapper.mapToItemDto(itemServiceImpl.updateItem(userId, itemId, itemDto,
+                EntityTags.version(ifMatch)));
+        return ResponseEntity.ok().eTag(itemServiceImpl.getItemETag(userId, itemId)).body(updated);
     }
 }
\ No newline at end of file
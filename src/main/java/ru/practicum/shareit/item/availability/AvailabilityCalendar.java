@@ -0,0 +1,189 @@
+package ru.practicum.shareit.item.availability;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.config.datasource.ReadYourWrites;
+import ru.practicum.shareit.config.datasource.ReplicaRoutingDataSource;
+import ru.practicum.shareit.erorr.exception.EntityNotFoundException;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
+import ru.practicum.shareit.item.dto.TimeSlot;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.event.UserDeletedEvent;
+import ru.practicum.shareit.util.TransactionCallbacks;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * Free slots of an item, found by sweeping its WAITING and APPROVED bookings in start order.
+ * Bookings are streamed and the answer is capped at {@code max-slots}, so memory stays bounded
+ * however long the range is.
+ *
+ * <p>Cached answers are keyed by the item's generation, which is set to a new, higher value after
+ * every committed booking change on the item. An answer computed from data read before the change
+ * lands under the old generation and is never served. Generations are kept for as many items as
+ * answers are; an item whose generation was evicted gets the current highest one, which no stale
+ * answer can carry. The bookings are read from the primary: the generation is bumped when the
+ * change commits there, and an answer computed from a lagging replica after that would be cached
+ * under the new generation. An answer that still came from a replica is not cached.
+ *
+ * <p>Only bookings starting at most the item's longest WAITING or APPROVED booking before the range
+ * are scanned. The longest booking of every item is loaded at startup. A new or re-approved booking
+ * widens it before its transaction commits, and a rejection recounts it from the database once it
+ * commits. Both happen under the item's booking lock, so no booking of the item is in flight while
+ * the bound narrows. A booking rolled back or deleted with its user leaves the bound wider than
+ * needed, which only costs scan length.
+ */
+@Slf4j
+@Component
+public class AvailabilityCalendar {
+
+    private static final String NAME = "item.availability";
+    private static final List<BookingStatus> OCCUPYING_STATUSES = List.of(BookingStatus.WAITING,
+            BookingStatus.APPROVED);
+
+    private final BookingRepository bookingRepository;
+    private final ItemRepository itemRepository;
+    private final AvailabilityProperties properties;
+    private final Cache<Key, ItemAvailabilityDto> cache;
+    private final Cache<Long, Long> generations;
+    private final AtomicLong lastGeneration = new AtomicLong();
+    private final AtomicLong epoch = new AtomicLong();
+    private final Map<Long, Duration> longestBookings = new ConcurrentHashMap<>();
+
+    public AvailabilityCalendar(BookingRepository bookingRepository, ItemRepository itemRepository,
+                                AvailabilityProperties properties, MeterRegistry meterRegistry) {
+        this.bookingRepository = bookingRepository;
+        this.itemRepository = itemRepository;
+        this.properties = properties;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(properties.cacheSize())
+                .expireAfterWrite(properties.cacheTtl())
+                .recordStats()
+                .build();
+        this.generations = Caffeine.newBuilder()
+                .maximumSize(properties.cacheSize())
+                .expireAfterAccess(properties.cacheTtl())
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, NAME);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadLongestBookings() {
+        bookingRepository.findLongestBookings(OCCUPYING_STATUSES)
+                .forEach(span -> longestBookings.put(span.itemId(), roundedUp(span.seconds())));
+        log.info("Longest bookings loaded for {} items", longestBookings.size());
+    }
+
+    /**
+     * Widens the item's scan to a booking that occupies it from now on; call while holding the
+     * item's booking lock, before the booking commits.
+     */
+    public void bookingOccupies(long itemId, LocalDateTime start, LocalDateTime end) {
+        longestBookings.merge(itemId, Duration.between(start, end), (current, added) ->
+                added.compareTo(current) > 0 ? added : current);
+    }
+
+    /**
+     * Recounts the item's longest booking after one of them stopped occupying it; call while holding
+     * the item's booking lock, after the change is flushed. The count replaces the old one once the
+     * transaction commits.
+     */
+    public void bookingReleased(long itemId) {
+        Duration longest = bookingRepository.findLongestBooking(itemId, OCCUPYING_STATUSES)
+                .map(AvailabilityCalendar::roundedUp)
+                .orElse(Duration.ZERO);
+        TransactionCallbacks.afterCommit(() -> longestBookings.put(itemId, longest));
+    }
+
+    /**
+     * Must be called inside a transaction, which keeps the booking cursor open.
+     */
+    public ItemAvailabilityDto get(long itemId, LocalDateTime from, LocalDateTime to) {
+        Key key = new Key(itemId, epoch.get(), generation(itemId), from, to);
+        ItemAvailabilityDto cached = cache.getIfPresent(key);
+        if (cached != null) {
+            return cached;
+        }
+        ItemAvailabilityDto availability = ReadYourWrites.onPrimary(() -> compute(itemId, from, to));
+        if (!ReplicaRoutingDataSource.readsReplica()) {
+            cache.put(key, availability);
+        }
+        return availability;
+    }
+
+    /**
+     * Drops the item's cached answers once the current transaction commits.
+     */
+    public void invalidate(long itemId) {
+        TransactionCallbacks.afterCommit(() -> generations.put(itemId, lastGeneration.incrementAndGet()));
+    }
+
+    @TransactionalEventListener
+    public void onUserDeleted(UserDeletedEvent event) {
+        epoch.incrementAndGet();
+        cache.invalidateAll();
+    }
+
+    private ItemAvailabilityDto compute(long itemId, LocalDateTime from, LocalDateTime to) {
+        List<TimeSlot> free = new ArrayList<>();
+        LocalDateTime cursor = from;
+        boolean booked = false;
+        Duration longest = longestBookings.getOrDefault(itemId, Duration.ZERO);
+        try (Stream<TimeSlot> bookings = bookingRepository.streamBookedSlots(itemId, OCCUPYING_STATUSES,
+                from.minus(longest), from, to)) {
+            Iterator<TimeSlot> iterator = bookings.iterator();
+            while (iterator.hasNext()) {
+                booked = true;
+                TimeSlot booking = iterator.next();
+                if (booking.start().isAfter(cursor)) {
+                    if (free.size() == properties.maxSlots()) {
+                        return new ItemAvailabilityDto(itemId, from, to, free, true);
+                    }
+                    free.add(new TimeSlot(cursor, booking.start()));
+                }
+                if (booking.end().isAfter(cursor)) {
+                    cursor = booking.end();
+                }
+            }
+        }
+        if (!booked && !itemRepository.existsById(itemId)) {
+            throw new EntityNotFoundException("Item not found");
+        }
+        if (cursor.isBefore(to)) {
+            if (free.size() == properties.maxSlots()) {
+                return new ItemAvailabilityDto(itemId, from, to, free, true);
+            }
+            free.add(new TimeSlot(cursor, to));
+        }
+        return new ItemAvailabilityDto(itemId, from, to, free, false);
+    }
+
+    // The query counts whole seconds; a second more keeps a booking with a fraction of one in the scan.
+    private static Duration roundedUp(long seconds) {
+        return Duration.ofSeconds(seconds + 1);
+    }
+
+    private long generation(long itemId) {
+        return generations.get(itemId, id -> lastGeneration.get());
+    }
+
+    private record Key(long itemId, long epoch, long generation, LocalDateTime from, LocalDateTime to) {
+    }
+}
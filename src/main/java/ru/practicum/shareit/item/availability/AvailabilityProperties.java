@@ -0,0 +1,13 @@
+package ru.practicum.shareit.item.availability;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+@ConfigurationProperties("shareit.availability")
+public record AvailabilityProperties(@DefaultValue("30d") Duration defaultRange,
+                                     @DefaultValue("1000") int maxSlots,
+                                     @DefaultValue("10000") long cacheSize,
+                                     @DefaultValue("10m") Duration cacheTtl) {
+}
@@ -0,0 +1,4 @@
+package ru.practicum.shareit.item.availability;
+
+public record ItemBookingSpan(Long itemId, Long seconds) {
+}
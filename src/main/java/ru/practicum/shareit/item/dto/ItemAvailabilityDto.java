@@ -0,0 +1,12 @@
+package ru.practicum.shareit.item.dto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Free slots of an item within {@code [from, to)}. When {@code truncated} is set the list was cut
+ * at the slot limit and the next query should start at the end of the last slot.
+ */
+public record ItemAvailabilityDto(long itemId, LocalDateTime from, LocalDateTime to, List<TimeSlot> free,
+                                  boolean truncated) {
+}
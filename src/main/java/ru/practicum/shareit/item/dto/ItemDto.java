@@ -2,11 +2,15 @@ package ru.practicum.shareit.item.dto;
 
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
+import lombok.NoArgsConstructor;
 
 @Data
 @Builder
+@NoArgsConstructor
+@AllArgsConstructor
 public class ItemDto {
     private Long id;
     @NotNull
@@ -17,4 +21,8 @@ public class ItemDto {
     @NotNull
     private Boolean available;
     private String request;
+
+    public ItemDto(Long id, String name, String description, Boolean available, Long request) {
+        this(id, name, description, available, request == null ? null : request.toString());
+    }
 }
\ No newline at end of file
@@ -0,0 +1,24 @@
+package ru.practicum.shareit.item.dto;
+
+import ru.practicum.shareit.util.EntityTags;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * Everything the representation of {@code GET /items/{itemId}} depends on. Comments change the
+ * item version and bookings its booking stamp; {@code lastStart}, set only for the owner, moves
+ * when a booking starts and so changes the last and next booking.
+ */
+public record ItemVersion(Long ownerId, Long version, Long bookingStamp, LocalDateTime lastStart) {
+
+    public String eTag(long userId) {
+        if (ownerId != userId) {
+            return EntityTags.of(version, 0);
+        }
+        if (lastStart == null) {
+            return EntityTags.of(version, 1, bookingStamp);
+        }
+        return EntityTags.of(version, 1, bookingStamp, lastStart.toEpochSecond(ZoneOffset.UTC), lastStart.getNano());
+    }
+}
@@ -1,11 +1,13 @@
 package ru.practicum.shareit.item.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import ru.practicum.shareit.booking.dto.BookingDtoForItem;
 
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -22,4 +24,19 @@ public class ItemWithBookingsDto {
     private BookingDtoForItem nextBooking;
     @Builder.Default
     private List<CommentDto> comments = new ArrayList<>();
+    @JsonIgnore
+    private Long ownerId;
+    private Long commentCount;
+    @JsonIgnore
+    private ItemVersion itemVersion;
+
+    /**
+     * Projection constructor. The versions come from the same row as the item, so a tag built from
+     * {@link #itemVersion} describes this representation.
+     */
+    public ItemWithBookingsDto(Long id, String name, String description, Boolean available, Long ownerId,
+                               Long commentCount, Long version, Long bookingStamp, LocalDateTime lastStart) {
+        this(id, name, description, available, null, null, new ArrayList<>(), ownerId, commentCount,
+                new ItemVersion(ownerId, version, bookingStamp, lastStart));
+    }
 }
\ No newline at end of file
@@ -1,5 +1,6 @@
 package ru.practicum.shareit.item.model;
 
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.FetchType;
@@ -9,14 +10,20 @@ import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 import lombok.EqualsAndHashCode;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 import lombok.ToString;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import ru.practicum.shareit.config.cache.EntityCacheConfig;
 import ru.practicum.shareit.user.model.User;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = EntityCacheConfig.ITEM_REGION)
 @Table(name = "items")
 @Getter
 @Setter
@@ -33,6 +40,16 @@ public class Item {
     private Boolean available;
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "owner_id")
+    @ToString.Exclude
     private User owner;
     private Long request;
+    @Version
+    private Long version;
+    // Incremented under the row lock of ItemRepository.findByIdForUpdate, so no count is lost.
+    @Column(name = "comment_count")
+    private Long commentCount = 0L;
+    // Incremented in the database whenever a booking of the item changes, see ItemStamps. Only
+    // findItemVersion reads it, straight from the table, so the cached copy may be stale.
+    @Column(name = "booking_stamp", insertable = false, updatable = false)
+    private Long bookingStamp;
 }
\ No newline at end of file
@@ -1,18 +1,50 @@
 package ru.practicum.shareit.item.repository;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
+import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.model.Comment;
+import ru.practicum.shareit.util.KeysetCursor;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 public interface CommentRepository extends JpaRepository<Comment, Long> {
-    List<Comment> findByItemId(long itemId);
 
+    /**
+     * The newest {@code limit} comments of each item with their authors, newest first.
+     */
     @Query("""
-            SELECT c FROM Comment c
-            WHERE c.item.id IN :itemIds
+            SELECT new ru.practicum.shareit.item.dto.CommentDto(n.id, n.body, n.itemId, n.authorName, n.created)
+            FROM (
+                SELECT c.id AS id, c.text AS body, c.item.id AS itemId, a.name AS authorName, c.created AS created,
+                    ROW_NUMBER() OVER (PARTITION BY c.item.id ORDER BY c.created DESC, c.id DESC) AS place
+                FROM Comment c
+                JOIN c.author a
+                WHERE c.item.id IN :itemIds
+            ) n
+            WHERE n.place <= :limit
+            ORDER BY n.itemId, n.created DESC, n.id DESC
             """)
-    List<Comment> findAllByItemId(@Param("itemIds") List<Long> itemIds);
-}
\ No newline at end of file
+    List<CommentDto> findNewestByItemIds(@Param("itemIds") Collection<Long> itemIds, @Param("limit") int limit);
+
+    @Query("""
+            SELECT new ru.practicum.shareit.item.dto.CommentDto(c.id, c.text, c.item.id, a.name, c.created)
+            FROM Comment c
+            JOIN c.author a
+            WHERE c.item.id = :itemId
+            AND c.created <= :cursorCreated AND (c.created < :cursorCreated OR c.id < :cursorId)
+            ORDER BY c.created DESC, c.id DESC
+            """)
+    List<CommentDto> findItemCommentsBefore(@Param("itemId") long itemId,
+                                            @Param("cursorCreated") LocalDateTime cursorCreated,
+                                            @Param("cursorId") long cursorId,
+                                            Pageable page);
+
+    default List<CommentDto> findItemComments(long itemId, KeysetCursor cursor, Pageable page) {
+        return findItemCommentsBefore(itemId, cursor.timestamp(), cursor.id(), page);
+    }
+}
@@ -1,19 +1,137 @@
 package ru.practicum.shareit.item.repository;
 
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.config.cache.EntityCacheConfig;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemVersion;
+import ru.practicum.shareit.item.dto.ItemWithBookingsDto;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.search.IndexedItem;
+import ru.practicum.shareit.request.dto.ItemAnswerDto;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
-public interface ItemRepository extends JpaRepository<Item, Long> {
+public interface ItemRepository extends JpaRepository<Item, Long>, ItemStamps {
+
+    String SEARCH_QUERY = """
+            select new ru.practicum.shareit.item.dto.ItemDto(i.id, i.name, i.description, i.available, i.request)
+            from Item as i
+            where (i.name ilike concat('%', ?1, '%') escape '!' or i.description ilike concat('%', ?1, '%') escape '!')
+            and i.available = true
+            order by i.id
+            """;
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = EntityCacheConfig.OWNER_ITEMS_REGION)
+    })
     List<Item> findByOwnerIdOrderByIdAsc(Long ownerId);
 
+    @Query(SEARCH_QUERY)
+    List<ItemDto> searchItemsByEscapedText(String escapedText);
+
+    @Query(SEARCH_QUERY)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    Stream<ItemDto> streamItemsByEscapedText(String escapedText);
+
+    /**
+     * Matches {@code text} literally, as the search index does, so {@code %} and {@code _} are not wildcards.
+     */
+    default List<ItemDto> searchItemsWithTextFilter(String text) {
+        return searchItemsByEscapedText(escape(text));
+    }
+
+    /**
+     * The same matches as {@link #searchItemsWithTextFilter(String)}, read as they are consumed;
+     * must be consumed and closed inside a transaction.
+     */
+    default Stream<ItemDto> streamItemsWithTextFilter(String text) {
+        return streamItemsByEscapedText(escape(text));
+    }
+
+    private static String escape(String text) {
+        return text.replace("!", "!!").replace("%", "!%").replace("_", "!_");
+    }
+
+    /**
+     * The item together with what its tag depends on, see {@link #findItemVersion}, read in one row.
+     */
     @Query("""
-            select i
+            select new ru.practicum.shareit.item.dto.ItemWithBookingsDto(i.id, i.name, i.description, i.available,
+                i.owner.id, i.commentCount, i.version, i.bookingStamp,
+                case when i.owner.id = ?2 then (select max(b.start) from Booking b
+                    where b.item.id = i.id and b.start < ?3 and b.status != ?4) end)
             from Item as i
-            where (i.name ilike concat('%', ?1, '%') or i.description ilike concat('%', ?1, '%'))
-            and i.available = true
+            where i.id = ?1
+            """)
+    Optional<ItemWithBookingsDto> findItemWithBookingsById(long itemId, long userId, LocalDateTime now,
+                                                           BookingStatus ignoredStatus);
+
+    /**
+     * Everything the tag of one item depends on, read from the item row. Only the owner sees
+     * bookings, and their last booking moves when a booking starts, so only for the owner is
+     * the start of the latest started booking looked up.
+     */
+    @Query("""
+            select new ru.practicum.shareit.item.dto.ItemVersion(i.owner.id, i.version, i.bookingStamp,
+                case when i.owner.id = ?2 then (select max(b.start) from Booking b
+                    where b.item.id = i.id and b.start < ?3 and b.status != ?4) end)
+            from Item as i
+            where i.id = ?1
+            """)
+    Optional<ItemVersion> findItemVersion(long itemId, long userId, LocalDateTime now, BookingStatus ignoredStatus);
+
+    @Query("select distinct c.item.id from Comment c where c.author.id = ?1")
+    List<Long> findIdsCommentedBy(long userId);
+
+    @Query("select distinct b.item.id from Booking b where b.booker.id = ?1")
+    List<Long> findIdsBookedBy(long userId);
+
+    @Query("""
+            select new ru.practicum.shareit.item.search.IndexedItem(i.id, i.name, i.description, i.request, i.owner.id)
+            from Item as i
+            where i.available = true
+            """)
+    List<IndexedItem> findAllAvailableForIndex();
+
+    @Query("""
+            select new ru.practicum.shareit.request.dto.ItemAnswerDto(i.id, i.name, i.description, i.available,
+                i.owner.id, i.request)
+            from Item as i
+            where i.request in ?1
+            order by i.id
+            """)
+    List<ItemAnswerDto> findRequestAnswers(Collection<Long> requestIds);
+
+    /**
+     * Reads the item past the cache and locks its row until the transaction ends.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select i from Item as i where i.id = ?1")
+    Optional<Item> findByIdForUpdate(long itemId);
+
+    /**
+     * Takes the comments of an author about to be deleted off the counts of their items, since
+     * the delete removes the comments through {@code ON DELETE CASCADE}.
+     */
+    @Modifying
+    @Query("""
+            update Item i set i.commentCount = i.commentCount
+                - (select count(c) from Comment c where c.item.id = i.id and c.author.id = ?1),
+                i.version = i.version + 1
+            where i.id in (select c.item.id from Comment c where c.author.id = ?1)
             """)
-    List<Item> searchItemsWithTextFilter(String text);
-}
\ No newline at end of file
+    void subtractCommentsBy(long authorId);
+}
@@ -0,0 +1,21 @@
+package ru.practicum.shareit.item.repository;
+
+import java.util.Collection;
+
+/**
+ * Increments that keep the item entity tag a single row read. They run in the database, so
+ * concurrent changes never lose one, and bypass Hibernate, so the item cache region is not
+ * evicted as a whole; callers that change the version evict the items they touched.
+ */
+public interface ItemStamps {
+
+    /**
+     * Marks a booking of each item as added or changed, which only the owner's view shows.
+     */
+    void incrementBookingStamps(Collection<Long> itemIds);
+
+    /**
+     * Marks a change every viewer of the items sees, such as a new comment or a renamed author.
+     */
+    void incrementVersions(Collection<Long> itemIds);
+}
@@ -0,0 +1,32 @@
+package ru.practicum.shareit.item.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.config.QueryCounter;
+
+import java.util.Collection;
+
+@RequiredArgsConstructor
+class ItemStampsImpl implements ItemStamps {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final QueryCounter queryCounter;
+
+    @Override
+    public void incrementBookingStamps(Collection<Long> itemIds) {
+        update("update items set booking_stamp = booking_stamp + 1 where item_id = ?", itemIds);
+    }
+
+    @Override
+    public void incrementVersions(Collection<Long> itemIds) {
+        update("update items set version = version + 1 where item_id = ?", itemIds);
+    }
+
+    private void update(String sql, Collection<Long> itemIds) {
+        if (!itemIds.isEmpty()) {
+            // Sent past Hibernate as one batch, so counted against the query budget here.
+            queryCounter.inspect(sql);
+            jdbcTemplate.batchUpdate(sql, itemIds.stream().sorted().map(id -> new Object[]{id}).toList());
+        }
+    }
+}
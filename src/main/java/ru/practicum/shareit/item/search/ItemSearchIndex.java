@@ -0,0 +1,296 @@
+package ru.practicum.shareit.item.search;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.event.UserDeletedEvent;
+import ru.practicum.shareit.util.TransactionCallbacks;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * Trigram inverted index over available items. Answers the same case-insensitive
+ * substring match as {@link ItemRepository#searchItemsWithTextFilter(String)}, which stays
+ * the fallback while the index is disabled or still being built.
+ */
+@Slf4j
+@Component
+public class ItemSearchIndex {
+
+    private static final int GRAM = 3;
+    private static final long DOCUMENT_OVERHEAD_BYTES = 96;
+    private static final long POSTING_OVERHEAD_BYTES = 48;
+    private static final long TERM_OVERHEAD_BYTES = 112;
+
+    private final ItemRepository itemRepository;
+    private final ItemSearchProperties properties;
+    private final Map<Long, Document> documents = new HashMap<>();
+    private final Map<String, Set<Long>> postings = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final AtomicLong textBytes = new AtomicLong();
+    private final AtomicLong postingCount = new AtomicLong();
+    private final Set<Long> changedDuringBuild = new HashSet<>();
+    private final Set<Long> ownersDeletedDuringBuild = new HashSet<>();
+    private boolean building;
+    private final Timer queryTimer;
+    private final Counter mismatches;
+    private volatile boolean ready;
+
+    public ItemSearchIndex(ItemRepository itemRepository, ItemSearchProperties properties,
+                           MeterRegistry meterRegistry) {
+        this.itemRepository = itemRepository;
+        this.properties = properties;
+        this.queryTimer = Timer.builder("item.search.index.query")
+                .register(meterRegistry);
+        this.mismatches = Counter.builder("item.search.index.mismatches")
+                .register(meterRegistry);
+        Gauge.builder("item.search.index.memory", this, ItemSearchIndex::estimatedMemoryBytes)
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        Gauge.builder("item.search.index.documents", documents, Map::size)
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        if (!properties.enabled()) {
+            return;
+        }
+        startBuild();
+        build(itemRepository.findAllAvailableForIndex());
+    }
+
+    /**
+     * From here until {@link #build(List)} every committed change is remembered, so the snapshot
+     * being loaded cannot bring back an item that was changed or whose owner was deleted meanwhile.
+     */
+    void startBuild() {
+        lock.writeLock().lock();
+        try {
+            building = true;
+            changedDuringBuild.clear();
+            ownersDeletedDuringBuild.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void build(List<IndexedItem> items) {
+        lock.writeLock().lock();
+        try {
+            items.stream()
+                    .filter(item -> !documents.containsKey(item.id()))
+                    .filter(item -> !changedDuringBuild.contains(item.id()))
+                    .filter(item -> !ownersDeletedDuringBuild.contains(item.ownerId()))
+                    .forEach(this::put);
+            building = false;
+            changedDuringBuild.clear();
+            ownersDeletedDuringBuild.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        ready = true;
+        log.info("Item search index built for {} items, ~{} bytes", items.size(), estimatedMemoryBytes());
+    }
+
+    /**
+     * Returns {@code size} matches ranked by {@link SearchRanking}, after the cursor or else after
+     * skipping {@code from}. The caller bounds {@code from} and {@code size}, which size the heap;
+     * the stored fallback must run inside a transaction.
+     */
+    public SearchPage search(String text, int from, int size, SearchCursor cursor) {
+        String query = text.toLowerCase(Locale.ROOT);
+        int skip = cursor == null ? from : 0;
+        if (!properties.enabled() || !ready) {
+            return rankStored(query, skip, size, cursor);
+        }
+        SearchPage page = queryTimer.record(() -> query(query, skip, size, cursor));
+        if (properties.verify()) {
+            checkConsistency(query, skip, size, cursor, page);
+        }
+        return page;
+    }
+
+    public void index(Item item) {
+        IndexedItem indexedItem = new IndexedItem(item.getId(), item.getName(), item.getDescription(),
+                item.getRequest(), item.getOwner().getId());
+        boolean available = Boolean.TRUE.equals(item.getAvailable());
+        TransactionCallbacks.afterCommit(() -> {
+            lock.writeLock().lock();
+            try {
+                if (building) {
+                    changedDuringBuild.add(indexedItem.id());
+                }
+                remove(indexedItem.id());
+                if (available) {
+                    put(indexedItem);
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    @TransactionalEventListener
+    public void onUserDeleted(UserDeletedEvent event) {
+        lock.writeLock().lock();
+        try {
+            if (building) {
+                ownersDeletedDuringBuild.add(event.userId());
+            }
+            documents.values().stream()
+                    .filter(document -> Objects.equals(document.item().ownerId(), event.userId()))
+                    .map(document -> document.item().id())
+                    .toList()
+                    .forEach(this::remove);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public long estimatedMemoryBytes() {
+        return textBytes.get()
+                + DOCUMENT_OVERHEAD_BYTES * documents.size()
+                + POSTING_OVERHEAD_BYTES * postingCount.get()
+                + TERM_OVERHEAD_BYTES * postings.size();
+    }
+
+    private SearchPage query(String text, int skip, int size, SearchCursor cursor) {
+        lock.readLock().lock();
+        try {
+            Stream<Document> candidates;
+            if (text.length() < GRAM) {
+                candidates = documents.values().stream();
+            } else {
+                List<Set<Long>> lists = grams(text).stream()
+                        .map(gram -> postings.getOrDefault(gram, Set.of()))
+                        .sorted(Comparator.comparingInt(Set::size))
+                        .toList();
+                candidates = lists.getFirst().stream()
+                        .filter(id -> lists.stream().allMatch(list -> list.contains(id)))
+                        .map(documents::get);
+            }
+            SearchRanking.TopK<IndexedItem> topK = new SearchRanking.TopK<>(skip + size, cursor);
+            candidates.forEach(document -> topK.offer(SearchRanking.score(document.name(), document.description(),
+                    text), document.item().id(), document.item()));
+            return page(topK, skip, size, ItemSearchIndex::toItemDto);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Ranks the repository matches the same way while the index is disabled or being built. The
+     * matches are streamed, so only the heap is held in memory, as with the index.
+     */
+    private SearchPage rankStored(String text, int skip, int size, SearchCursor cursor) {
+        SearchRanking.TopK<ItemDto> topK = new SearchRanking.TopK<>(skip + size, cursor);
+        try (Stream<ItemDto> items = itemRepository.streamItemsWithTextFilter(text)) {
+            items.forEach(item -> topK.offer(SearchRanking.score(Document.normalize(item.getName()),
+                    Document.normalize(item.getDescription()), text), item.getId(), item));
+        }
+        return page(topK, skip, size, Function.identity());
+    }
+
+    private static <T> SearchPage page(SearchRanking.TopK<T> topK, int skip, int size,
+                                       Function<T, ItemDto> toItemDto) {
+        List<SearchRanking.Ranked<T>> ranked = topK.bestFirst();
+        List<SearchRanking.Ranked<T>> page = ranked.subList(Math.min(skip, ranked.size()), ranked.size());
+        SearchCursor next = null;
+        if (topK.isFull() && !page.isEmpty()) {
+            SearchRanking.Ranked<T> last = page.getLast();
+            next = new SearchCursor(last.score(), last.id());
+        }
+        return new SearchPage(page.stream().map(SearchRanking.Ranked::value).map(toItemDto).toList(), next);
+    }
+
+    private void checkConsistency(String text, int skip, int size, SearchCursor cursor, SearchPage page) {
+        List<Long> indexed = page.items().stream().map(ItemDto::getId).toList();
+        List<Long> stored = rankStored(text, skip, size, cursor).items().stream().map(ItemDto::getId).toList();
+        if (!indexed.equals(stored)) {
+            mismatches.increment();
+            log.warn("Item search index is out of sync for '{}': index {}, repository {}", text, indexed, stored);
+        }
+    }
+
+    private void put(IndexedItem item) {
+        Document document = Document.of(item);
+        documents.put(item.id(), document);
+        Set<String> grams = document.grams();
+        grams.forEach(gram -> postings.computeIfAbsent(gram, key -> new HashSet<>()).add(item.id()));
+        postingCount.addAndGet(grams.size());
+        textBytes.addAndGet(document.sizeInBytes());
+    }
+
+    private void remove(Long id) {
+        Document document = documents.remove(id);
+        if (document == null) {
+            return;
+        }
+        Set<String> grams = document.grams();
+        grams.forEach(gram -> {
+            Set<Long> ids = postings.get(gram);
+            ids.remove(id);
+            if (ids.isEmpty()) {
+                postings.remove(gram);
+            }
+        });
+        postingCount.addAndGet(-grams.size());
+        textBytes.addAndGet(-document.sizeInBytes());
+    }
+
+    private static Set<String> grams(String text) {
+        Set<String> grams = new HashSet<>();
+        for (int i = 0; i + GRAM <= text.length(); i++) {
+            grams.add(text.substring(i, i + GRAM));
+        }
+        return grams;
+    }
+
+    private static ItemDto toItemDto(IndexedItem indexedItem) {
+        return new ItemDto(indexedItem.id(), indexedItem.name(), indexedItem.description(), true,
+                indexedItem.request());
+    }
+
+    private record Document(IndexedItem item, String name, String description) {
+
+        private static Document of(IndexedItem item) {
+            return new Document(item, normalize(item.name()), normalize(item.description()));
+        }
+
+        private static String normalize(String value) {
+            return value == null ? "" : value.toLowerCase(Locale.ROOT);
+        }
+
+        private Set<String> grams() {
+            Set<String> grams = ItemSearchIndex.grams(name);
+            grams.addAll(ItemSearchIndex.grams(description));
+            return grams;
+        }
+
+        private long sizeInBytes() {
+            return 4L * (name.length() + description.length());
+        }
+    }
+}
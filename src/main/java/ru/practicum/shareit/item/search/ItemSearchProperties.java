@@ -0,0 +1,12 @@
+package ru.practicum.shareit.item.search;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+@ConfigurationProperties("shareit.search.index")
+public record ItemSearchProperties(@DefaultValue("true") boolean enabled,
+                                   @DefaultValue("false") boolean verify,
+                                   @DefaultValue("20") int defaultPageSize,
+                                   @DefaultValue("100") int maxPageSize,
+                                   @DefaultValue("10000") int maxOffset) {
+}
@@ -0,0 +1,11 @@
+package ru.practicum.shareit.item.search;
+
+import ru.practicum.shareit.item.dto.ItemDto;
+
+import java.util.List;
+
+/**
+ * One page of ranked search results; {@code next} is null on the last page.
+ */
+public record SearchPage(List<ItemDto> items, SearchCursor next) {
+}
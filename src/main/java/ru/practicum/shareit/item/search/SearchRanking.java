@@ -0,0 +1,92 @@
+package ru.practicum.shareit.item.search;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Relevance of an item to a lower-case query and bounded top-k selection over a stream of
+ * matches. A match in the name always outranks a match in the description only, and a match
+ * of a whole word outranks a match inside a word.
+ */
+final class SearchRanking {
+
+    static final int NAME_TOKEN = 8;
+    static final int NAME = 4;
+    static final int DESCRIPTION_TOKEN = 2;
+    static final int DESCRIPTION = 1;
+
+    private static final Comparator<Ranked<?>> BEST_FIRST = Comparator.<Ranked<?>>comparingInt(Ranked::score)
+            .reversed()
+            .thenComparingLong(Ranked::id);
+
+    private SearchRanking() {
+    }
+
+    /**
+     * Both texts must already be lower case; returns 0 if neither contains the query.
+     */
+    static int score(String name, String description, String query) {
+        int score = 0;
+        if (name.contains(query)) {
+            score += containsToken(name, query) ? NAME_TOKEN : NAME;
+        }
+        if (description.contains(query)) {
+            score += containsToken(description, query) ? DESCRIPTION_TOKEN : DESCRIPTION;
+        }
+        return score;
+    }
+
+    static boolean containsToken(String text, String query) {
+        for (int at = text.indexOf(query); at >= 0; at = text.indexOf(query, at + 1)) {
+            int end = at + query.length();
+            if ((at == 0 || !Character.isLetterOrDigit(text.charAt(at - 1)))
+                    && (end == text.length() || !Character.isLetterOrDigit(text.charAt(end)))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    record Ranked<T>(int score, long id, T value) {
+    }
+
+    /**
+     * Keeps the best {@code limit} entries ranked after the cursor in a heap whose head is the
+     * worst kept entry, so the matches are never collected or sorted as a whole.
+     */
+    static final class TopK<T> {
+        private final int limit;
+        private final SearchCursor after;
+        private final PriorityQueue<Ranked<T>> heap;
+
+        TopK(int limit, SearchCursor after) {
+            this.limit = limit;
+            this.after = after;
+            this.heap = new PriorityQueue<>(Math.min(limit, 1024) + 1, BEST_FIRST.reversed());
+        }
+
+        void offer(int score, long id, T value) {
+            if (score == 0 || after != null && !after.isBefore(score, id)) {
+                return;
+            }
+            if (heap.size() < limit) {
+                heap.add(new Ranked<>(score, id, value));
+            } else if (BEST_FIRST.compare(new Ranked<>(score, id, null), heap.peek()) < 0) {
+                heap.poll();
+                heap.add(new Ranked<>(score, id, value));
+            }
+        }
+
+        boolean isFull() {
+            return heap.size() == limit;
+        }
+
+        List<Ranked<T>> bestFirst() {
+            List<Ranked<T>> ranked = new ArrayList<>(heap);
+            ranked.sort(BEST_FIRST);
+            return ranked;
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package ru.practicum.shareit.item.service;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * {@code newest} comments are embedded in every item read, the rest are paged through
+ * {@code GET /items/{itemId}/comments}.
+ */
+@ConfigurationProperties("shareit.comments")
+public record CommentProperties(@DefaultValue("10") int newest,
+                                @DefaultValue("20") int defaultPageSize,
+                                @DefaultValue("100") int maxPageSize) {
+}
@@ -1,11 +1,16 @@
 package ru.practicum.shareit.item.service;
 
 import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemWithBookingsDto;
 import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.search.SearchCursor;
+import ru.practicum.shareit.item.search.SearchPage;
+import ru.practicum.shareit.util.KeysetCursor;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 public interface ItemService {
@@ -14,11 +19,17 @@ public interface ItemService {
 
     ItemWithBookingsDto getItem(long userId, long itemId);
 
-    List<Item> getItemsByText(String text);
+    List<CommentDto> getItemComments(long itemId, int size, KeysetCursor cursor);
+
+    String getItemETag(long userId, long itemId);
+
+    SearchPage getItemsByText(String text, int from, int size, SearchCursor cursor);
+
+    ItemAvailabilityDto getAvailability(long itemId, LocalDateTime from, LocalDateTime to);
 
     Item addItem(long userId, ItemDto itemDto);
 
     Comment addComment(long userId, long itemId, CommentDto commentDto);
 
-    Item updateItem(long userId, long itemId, ItemDto itemDto);
+    Item updateItem(long userId, long itemId, ItemDto itemDto, Long expectedVersion);
 }
\ No newline at end of file
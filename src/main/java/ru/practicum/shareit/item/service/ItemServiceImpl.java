@@ -2,25 +2,37 @@ package ru.practicum.shareit.item.service;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.booking.dto.BookingDtoForItem;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
 import ru.practicum.shareit.booking.service.BookingService;
 import ru.practicum.shareit.erorr.exception.EntityNotFoundException;
+import ru.practicum.shareit.erorr.exception.PreconditionFailedException;
 import ru.practicum.shareit.erorr.exception.ValidationException;
+import ru.practicum.shareit.item.availability.AvailabilityCalendar;
 import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemWithBookingsDto;
 import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.CommentRepository;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.ItemSearchIndex;
+import ru.practicum.shareit.item.search.ItemSearchProperties;
+import ru.practicum.shareit.item.search.SearchCursor;
+import ru.practicum.shareit.item.search.SearchPage;
 import ru.practicum.shareit.mapper.BookingMapper;
 import ru.practicum.shareit.mapper.CommentMapper;
 import ru.practicum.shareit.mapper.ItemMapper;
+import ru.practicum.shareit.metrics.ServiceMetrics;
+import ru.practicum.shareit.request.repository.ItemRequestRepository;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.service.UserService;
+import ru.practicum.shareit.util.KeysetCursor;
 
 import java.time.LocalDateTime;
 import java.util.Collections;
@@ -45,6 +57,12 @@ public class ItemServiceImpl implements ItemService {
     private final BookingService bookingServiceImpl;
     private final CommentMapper commentMapper;
     private final BookingMapper bookingMapper;
+    private final ItemSearchIndex itemSearchIndex;
+    private final ItemSearchProperties itemSearchProperties;
+    private final ItemRequestRepository itemRequestRepository;
+    private final AvailabilityCalendar availabilityCalendar;
+    private final CommentProperties commentProperties;
+    private final ServiceMetrics serviceMetrics;
     private static final String LAST_BOOKING = "last";
     private static final String NEXT_BOOKING = "next";
 
@@ -52,10 +70,15 @@ public class ItemServiceImpl implements ItemService {
     @Transactional(readOnly = true)
     public List<ItemWithBookingsDto> getAllOwnerItems(long userId) {
         log.info("Get all items from user {}", userId);
-        List<ItemWithBookingsDto> items = itemRepository.findByOwnerIdOrderByIdAsc(userId)
-                .stream()
-                .map(itemMapper::mapToItemWithBookingsDto)
-                .toList();
+        return serviceMetrics.recordResults("item.list.owner", null, () -> findOwnerItems(userId));
+    }
+
+    private List<ItemWithBookingsDto> findOwnerItems(long userId) {
+        List<ItemWithBookingsDto> items = serviceMetrics.recordPhase("item.list.owner", "items", () ->
+                itemRepository.findByOwnerIdOrderByIdAsc(userId)
+                        .stream()
+                        .map(itemMapper::mapToItemWithBookingsDto)
+                        .toList());
 
         if (items.isEmpty()) {
             log.info("No items found for user {}", userId);
@@ -66,8 +89,11 @@ public class ItemServiceImpl implements ItemService {
                 .map(ItemWithBookingsDto::getId)
                 .collect(Collectors.toList());
 
-        Map<Long, List<BookingDtoForItem>> bookingDtoByItemId = getBookingsForItems(itemIds);
-        Map<Long, List<CommentDto>> allComments = getCommentsForItems(itemIds);
+        LocalDateTime now = LocalDateTime.now();
+        Map<Long, List<BookingDtoForItem>> bookingDtoByItemId = serviceMetrics.recordPhase("item.list.owner",
+                "bookings", () -> getBookingsForItems(itemIds, now));
+        Map<Long, List<CommentDto>> allComments = serviceMetrics.recordPhase("item.list.owner", "comments",
+                () -> getCommentsForItems(itemIds));
 
         items.forEach(item -> {
             List<BookingDtoForItem> bookings = Optional.ofNullable(bookingDtoByItemId.get(item.getId()))
@@ -75,16 +101,16 @@ public class ItemServiceImpl implements ItemService {
             List<CommentDto> comments = Optional.ofNullable(allComments.get(item.getId()))
                     .orElse(Collections.emptyList());
 
-            item.setLastBooking(findBooking(bookings, true));
-            item.setNextBooking(findBooking(bookings, false));
+            item.setLastBooking(findBooking(bookings, true, now));
+            item.setNextBooking(findBooking(bookings, false, now));
             item.setComments(comments);
         });
 
         return items;
     }
 
-    private Map<Long, List<BookingDtoForItem>> getBookingsForItems(List<Long> itemIds) {
-        Map<Long, List<Booking>> bookingsByItemId = bookingServiceImpl.getBookingsForItems(itemIds);
+    private Map<Long, List<BookingDtoForItem>> getBookingsForItems(List<Long> itemIds, LocalDateTime now) {
+        Map<Long, List<Booking>> bookingsByItemId = bookingServiceImpl.getBookingsForItems(itemIds, now);
         return bookingsByItemId.entrySet().stream()
                 .collect(Collectors.toMap(
                         Map.Entry::getKey,
@@ -95,21 +121,20 @@ public class ItemServiceImpl implements ItemService {
     }
 
     private Map<Long, List<CommentDto>> getCommentsForItems(List<Long> itemIds) {
-        return commentRepository.findAllByItemId(itemIds)
+        return commentRepository.findNewestByItemIds(itemIds, commentProperties.newest())
                 .stream()
-                .map(commentMapper::mapToCommentDto)
                 .collect(Collectors.groupingBy(CommentDto::getItemId));
     }
 
-    private BookingDtoForItem findBooking(List<BookingDtoForItem> bookings, boolean last) {
+    static BookingDtoForItem findBooking(List<BookingDtoForItem> bookings, boolean last, LocalDateTime now) {
         if (last) {
             return bookings.stream()
-                    .filter(booking -> booking.getEnd().isBefore(LocalDateTime.now()))
+                    .filter(booking -> booking.getEnd().isBefore(now))
                     .max(Comparator.comparing(BookingDtoForItem::getEnd))
                     .orElse(null);
         } else {
             return bookings.stream()
-                    .filter(booking -> booking.getStart().isAfter(LocalDateTime.now()))
+                    .filter(booking -> booking.getStart().isAfter(now))
                     .min(Comparator.comparing(BookingDtoForItem::getStart))
                     .orElse(null);
         }
@@ -119,44 +144,106 @@ public class ItemServiceImpl implements ItemService {
     @Transactional(readOnly = true)
     public ItemWithBookingsDto getItem(long userId, long itemId) {
         log.info("Get item with id {}", itemId);
-        Item item = itemRepository.findById(itemId)
+        return serviceMetrics.record("item.get", () -> findItem(userId, itemId));
+    }
+
+    private ItemWithBookingsDto findItem(long userId, long itemId) {
+        ItemWithBookingsDto itemWithBookingsDto = itemRepository.findItemWithBookingsById(itemId, userId,
+                        LocalDateTime.now(), BookingStatus.REJECTED)
                 .orElseThrow(() -> new EntityNotFoundException("Item not found"));
-        ItemWithBookingsDto itemWithBookingsDto = itemMapper.mapToItemWithBookingsDto(item);
-        if (item.getOwner().getId() == userId) {
-            itemWithBookingsDto.setLastBooking(bookingServiceImpl.getBookingForItem(item.getId(), LAST_BOOKING));
-            itemWithBookingsDto.setNextBooking(bookingServiceImpl.getBookingForItem(item.getId(), NEXT_BOOKING));
+        if (itemWithBookingsDto.getOwnerId() == userId) {
+            itemWithBookingsDto.setLastBooking(bookingServiceImpl.getBookingForItem(itemId, LAST_BOOKING));
+            itemWithBookingsDto.setNextBooking(bookingServiceImpl.getBookingForItem(itemId, NEXT_BOOKING));
         }
-        itemWithBookingsDto.setComments(commentRepository.findByItemId(itemId)
-                .stream().map(commentMapper::mapToCommentDto).toList());
+        itemWithBookingsDto.setComments(commentRepository.findNewestByItemIds(List.of(itemId),
+                commentProperties.newest()));
         return itemWithBookingsDto;
     }
 
     @Override
     @Transactional(readOnly = true)
-    public List<Item> getItemsByText(String text) {
+    public List<CommentDto> getItemComments(long itemId, int size, KeysetCursor cursor) {
+        log.info("Get comments of item {}", itemId);
+        if (size > commentProperties.maxPageSize()) {
+            throw new ValidationException("Page size must not exceed " + commentProperties.maxPageSize());
+        }
+        return serviceMetrics.recordResults("item.comment.list", null, () -> {
+            List<CommentDto> comments = commentRepository.findItemComments(itemId,
+                    Optional.ofNullable(cursor).orElse(KeysetCursor.FIRST), PageRequest.of(0, size));
+            if (comments.isEmpty() && !itemRepository.existsById(itemId)) {
+                throw new EntityNotFoundException("Item not found");
+            }
+            return comments;
+        });
+    }
+
+    /**
+     * Reads only the versions the representation depends on, so an unchanged item can be
+     * answered with 304 without loading it.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public String getItemETag(long userId, long itemId) {
+        return serviceMetrics.record("item.version", () -> itemRepository
+                .findItemVersion(itemId, userId, LocalDateTime.now(), BookingStatus.REJECTED)
+                .map(itemVersion -> itemVersion.eTag(userId))
+                .orElseThrow(() -> new EntityNotFoundException("Item not found")));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public SearchPage getItemsByText(String text, int from, int size, SearchCursor cursor) {
         log.info("Getting items by text {}", text);
+        if (size > itemSearchProperties.maxPageSize()) {
+            throw new ValidationException("Page size must not exceed " + itemSearchProperties.maxPageSize());
+        }
+        if (from > itemSearchProperties.maxOffset()) {
+            throw new ValidationException("Offset must not exceed " + itemSearchProperties.maxOffset()
+                    + ", follow the cursor for later pages");
+        }
         if (text == null || text.isEmpty()) {
-            return emptyList();
+            return new SearchPage(emptyList(), null);
+        }
+        return serviceMetrics.record("item.search", () -> itemSearchIndex.search(text, from, size, cursor));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public ItemAvailabilityDto getAvailability(long itemId, LocalDateTime from, LocalDateTime to) {
+        log.info("Get availability of item {} from {} to {}", itemId, from, to);
+        if (!from.isBefore(to)) {
+            throw new ValidationException("The end of the range must be after its start");
         }
-        return itemRepository.searchItemsWithTextFilter(text);
+        return serviceMetrics.record("item.availability", () -> availabilityCalendar.get(itemId, from, to));
     }
 
     @Override
     public Item addItem(long userId, ItemDto itemDto) {
         log.info("Adding item {}", itemDto);
-        User owner = userServiceImpl.getUser(userId);
-        Item item = itemMapper.mapToItem(itemDto);
-        item.setOwner(owner);
-        Item saveItem = itemRepository.save(item);
-        log.info("Item saved {}", saveItem);
-        return saveItem;
+        return serviceMetrics.record("item.add", () -> {
+            User owner = userServiceImpl.getUser(userId);
+            Item item = itemMapper.mapToItem(itemDto);
+            if (item.getRequest() != null && !itemRequestRepository.existsById(item.getRequest())) {
+                throw new EntityNotFoundException("Request with id " + item.getRequest() + " not found");
+            }
+            item.setOwner(owner);
+            Item saveItem = itemRepository.save(item);
+            itemSearchIndex.index(saveItem);
+            log.info("Item saved with id {}", saveItem.getId());
+            return saveItem;
+        });
     }
 
     @Override
     public Comment addComment(long userId, long itemId, CommentDto commentDto) {
         log.info("Adding comment {}", commentDto);
+        return serviceMetrics.record("item.comment", () -> saveComment(userId, itemId, commentDto));
+    }
+
+    private Comment saveComment(long userId, long itemId, CommentDto commentDto) {
         User user = userServiceImpl.getUser(userId);
-        Item item = itemRepository.findById(itemId).orElseThrow(() -> new EntityNotFoundException("Item not found"));
+        Item item = itemRepository.findByIdForUpdate(itemId)
+                .orElseThrow(() -> new EntityNotFoundException("Item not found"));
         List<Booking> bookings = bookingServiceImpl.getBookingsForComment(itemId, userId);
 
         if (bookings.isEmpty()) {
@@ -167,23 +254,34 @@ public class ItemServiceImpl implements ItemService {
         comment.setAuthor(user);
         comment.setCreated(LocalDateTime.now());
         Comment saveComment = commentRepository.save(comment);
-        log.info("Comment saved {}", saveComment);
+        // The row lock keeps concurrent comments from losing a count; the update bumps the version.
+        item.setCommentCount(item.getCommentCount() + 1);
+        log.info("Comment saved with id {} for item ID {}", saveComment.getId(), itemId);
         return saveComment;
     }
 
     @Override
-    public Item updateItem(long userId, long itemId, ItemDto itemDto) {
+    public Item updateItem(long userId, long itemId, ItemDto itemDto, Long expectedVersion) {
         log.info("Updating existing item: {}", itemDto);
+        return serviceMetrics.record("item.update", () -> saveItem(userId, itemId, itemDto, expectedVersion));
+    }
+
+    private Item saveItem(long userId, long itemId, ItemDto itemDto, Long expectedVersion) {
         checkOwnerExist(userId);
         Item item = itemRepository.findById(itemId).orElseThrow(() -> new EntityNotFoundException("Item not found"));
         if (item.getOwner().getId() != userId) {
             throw new ValidationException("Owner is not have this item");
         }
+        if (expectedVersion != null && !expectedVersion.equals(item.getVersion())) {
+            throw new PreconditionFailedException("Item was modified, current version is " + item.getVersion());
+        }
         Optional.ofNullable(itemDto.getName()).ifPresent(item::setName);
         Optional.ofNullable(itemDto.getDescription()).ifPresent(item::setDescription);
         Optional.ofNullable(itemDto.getAvailable()).ifPresent(item::setAvailable);
-        Item saveItem = itemRepository.save(item);
-        log.info("Item updated {}", saveItem);
+        // Flushed here, so a concurrent update fails its version check inside the timed operation.
+        Item saveItem = itemRepository.saveAndFlush(item);
+        itemSearchIndex.index(saveItem);
+        log.info("Item updated with id {}", saveItem.getId());
         return saveItem;
     }
 
@@ -0,0 +1,39 @@
+package ru.practicum.shareit.item.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.config.cache.EntityCacheEvictor;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.event.UserDeletingEvent;
+import ru.practicum.shareit.user.event.UserRenamedEvent;
+import ru.practicum.shareit.util.TransactionCallbacks;
+
+import java.util.List;
+
+/**
+ * Item tags are read from the item row alone, so changes to a user are carried over to the items
+ * that show them, inside the user's transaction: a renamed author changes their comments, and a
+ * deleted user takes their comments and bookings with them. Cached copies of the renamed
+ * author's items are evicted only after the rename commits.
+ */
+@Component
+@RequiredArgsConstructor
+public class ItemTagUpdater {
+
+    private final ItemRepository itemRepository;
+    private final EntityCacheEvictor entityCacheEvictor;
+
+    @EventListener
+    public void onUserRenamed(UserRenamedEvent event) {
+        List<Long> itemIds = itemRepository.findIdsCommentedBy(event.userId());
+        itemRepository.incrementVersions(itemIds);
+        TransactionCallbacks.afterCommit(() -> entityCacheEvictor.evictItems(itemIds));
+    }
+
+    @EventListener
+    public void onUserDeleting(UserDeletingEvent event) {
+        itemRepository.subtractCommentsBy(event.userId());
+        itemRepository.incrementBookingStamps(itemRepository.findIdsBookedBy(event.userId()));
+    }
+}
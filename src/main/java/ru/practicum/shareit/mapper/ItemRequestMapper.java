@@ -1,14 +1,16 @@
 package ru.practicum.shareit.mapper;
 
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.model.ItemRequest;
 
-public class ItemRequestMapper {
+@Mapper
+public interface ItemRequestMapper {
 
-    public static ItemRequestDto mapToItemRequestDto(ItemRequest itemRequest) {
-        return ItemRequestDto.builder()
-                .id(itemRequest.getId())
-                .description(itemRequest.getDescription())
-                .build();
-    }
-}
\ No newline at end of file
+    @Mapping(target = "id", ignore = true)
+    @Mapping(target = "created", ignore = true)
+    ItemRequest mapToItemRequest(ItemRequestDto itemRequestDto);
+
+    ItemRequestDto mapToItemRequestDto(ItemRequest itemRequest);
+}
@@ -0,0 +1,134 @@
+package ru.practicum.shareit.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.erorr.exception.AccessDeniedException;
+import ru.practicum.shareit.erorr.exception.EntityNotFoundException;
+import ru.practicum.shareit.erorr.exception.PreconditionFailedException;
+import ru.practicum.shareit.erorr.exception.ValidationException;
+
+import java.util.Collection;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Timers for service operations tagged by operation, booking state and outcome, plus
+ * result-size summaries and per-phase timers. Meters are resolved once per tag combination
+ * and cached, so the hot path is a map lookup and two {@link System#nanoTime()} calls.
+ */
+@Component
+public class ServiceMetrics {
+
+    public static final String OPERATION_TIMER = "shareit.service.operation";
+    public static final String PHASE_TIMER = "shareit.service.phase";
+    public static final String RESULT_SIZE = "shareit.service.results";
+    private static final String NO_STATE = "none";
+
+    private final MeterRegistry meterRegistry;
+    private final Map<MeterKey, Timer> operationTimers = new ConcurrentHashMap<>();
+    private final Map<MeterKey, Timer> phaseTimers = new ConcurrentHashMap<>();
+    private final Map<MeterKey, DistributionSummary> resultSizes = new ConcurrentHashMap<>();
+
+    public ServiceMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    public <T> T record(String operation, Supplier<T> call) {
+        return record(operation, null, call);
+    }
+
+    public void record(String operation, Runnable call) {
+        record(operation, null, () -> {
+            call.run();
+            return null;
+        });
+    }
+
+    public <T> T record(String operation, Enum<?> state, Supplier<T> call) {
+        long started = System.nanoTime();
+        String outcome = "error";
+        try {
+            T result = call.get();
+            outcome = "success";
+            return result;
+        } catch (RuntimeException e) {
+            outcome = outcome(e);
+            throw e;
+        } finally {
+            operationTimer(operation, tag(state), outcome).record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    public <T extends Collection<?>> T recordResults(String operation, Enum<?> state, Supplier<T> call) {
+        T result = record(operation, state, call);
+        resultSize(operation, tag(state)).record(result.size());
+        return result;
+    }
+
+    public <T> T recordPhase(String operation, String phase, Supplier<T> call) {
+        long started = System.nanoTime();
+        try {
+            return call.get();
+        } finally {
+            phaseTimer(operation, phase).record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private Timer operationTimer(String operation, String state, String outcome) {
+        return operationTimers.computeIfAbsent(new MeterKey(operation, state, outcome), key ->
+                Timer.builder(OPERATION_TIMER)
+                        .tag("operation", key.operation())
+                        .tag("state", key.state())
+                        .tag("outcome", key.outcome())
+                        .register(meterRegistry));
+    }
+
+    private Timer phaseTimer(String operation, String phase) {
+        return phaseTimers.computeIfAbsent(new MeterKey(operation, phase, null), key ->
+                Timer.builder(PHASE_TIMER)
+                        .tag("operation", key.operation())
+                        .tag("phase", key.state())
+                        .register(meterRegistry));
+    }
+
+    private DistributionSummary resultSize(String operation, String state) {
+        return resultSizes.computeIfAbsent(new MeterKey(operation, state, null), key ->
+                DistributionSummary.builder(RESULT_SIZE)
+                        .baseUnit("rows")
+                        .tag("operation", key.operation())
+                        .tag("state", key.state())
+                        .register(meterRegistry));
+    }
+
+    private static String tag(Enum<?> state) {
+        return state == null ? NO_STATE : state.name().toLowerCase(Locale.ROOT);
+    }
+
+    private static String outcome(RuntimeException e) {
+        if (e instanceof EntityNotFoundException) {
+            return "not_found";
+        }
+        if (e instanceof ValidationException) {
+            return "invalid";
+        }
+        if (e instanceof AccessDeniedException) {
+            return "denied";
+        }
+        if (e instanceof PreconditionFailedException) {
+            return "precondition_failed";
+        }
+        if (e instanceof ConcurrencyFailureException) {
+            return "conflict";
+        }
+        return "error";
+    }
+
+    private record MeterKey(String operation, String state, String outcome) {
+    }
+}
@@ -1,12 +1,63 @@
 package ru.practicum.shareit.request;
 
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Positive;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import ru.practicum.shareit.config.QueryBudget;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.request.service.ItemRequestService;
+import ru.practicum.shareit.util.KeysetCursor;
+
+import java.util.List;
 
-/**
- * TODO Sprint add-item-requests.
- */
 @RestController
 @RequestMapping(path = "/requests")
+@RequiredArgsConstructor
 public class ItemRequestController {
-}
\ No newline at end of file
+
+    private final ItemRequestService itemRequestServiceImpl;
+
+    @PostMapping
+    @QueryBudget(2)
+    public ItemRequestDto addRequest(@RequestHeader("X-Sharer-User-Id") long userId,
+                                     @Valid @RequestBody ItemRequestDto itemRequestDto) {
+        return itemRequestServiceImpl.addRequest(userId, itemRequestDto);
+    }
+
+    @GetMapping
+    @QueryBudget(3)
+    public List<ItemRequestDto> getOwnRequests(@RequestHeader("X-Sharer-User-Id") long userId) {
+        return itemRequestServiceImpl.getOwnRequests(userId);
+    }
+
+    @GetMapping("/all")
+    @QueryBudget(3)
+    public ResponseEntity<List<ItemRequestDto>> getOtherRequests(@RequestHeader("X-Sharer-User-Id") long userId,
+                                                                 @Positive @RequestParam(defaultValue = "20") int size,
+                                                                 @RequestParam(required = false) String cursor) {
+        List<ItemRequestDto> requests = itemRequestServiceImpl.getOtherRequests(userId, size,
+                KeysetCursor.decode(cursor));
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (requests.size() == size) {
+            ItemRequestDto last = requests.getLast();
+            response.header(KeysetCursor.HEADER, new KeysetCursor(last.getCreated(), last.getId()).encode());
+        }
+        return response.body(requests);
+    }
+
+    @GetMapping("/{requestId}")
+    @QueryBudget(3)
+    public ItemRequestDto getRequest(@RequestHeader("X-Sharer-User-Id") long userId,
+                                     @PathVariable long requestId) {
+        return itemRequestServiceImpl.getRequest(userId, requestId);
+    }
+}
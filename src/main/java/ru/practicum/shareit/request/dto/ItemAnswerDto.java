@@ -0,0 +1,10 @@
+package ru.practicum.shareit.request.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+/**
+ * An item offered in answer to a request.
+ */
+public record ItemAnswerDto(Long id, String name, String description, Boolean available, Long ownerId,
+                            @JsonIgnore Long requestId) {
+}
@@ -1,12 +1,30 @@
 package ru.practicum.shareit.request.dto;
 
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
 import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
 
-/**
- * TODO Sprint add-item-requests.
- */
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
 @Builder
+@NoArgsConstructor
+@AllArgsConstructor
 public class ItemRequestDto {
     private Long id;
+    @NotBlank
+    @Size(max = 1000)
     private String description;
-}
\ No newline at end of file
+    private LocalDateTime created;
+    @Builder.Default
+    private List<ItemAnswerDto> items = new ArrayList<>();
+
+    public ItemRequestDto(Long id, String description, LocalDateTime created) {
+        this(id, description, created, new ArrayList<>());
+    }
+}
@@ -0,0 +1,47 @@
+package ru.practicum.shareit.request.repository;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.util.KeysetCursor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+public interface ItemRequestRepository extends JpaRepository<ItemRequest, Long> {
+
+    @Query("""
+            select new ru.practicum.shareit.request.dto.ItemRequestDto(r.id, r.description, r.created)
+            from ItemRequest r
+            where r.requestor.id = ?1
+            order by r.created desc, r.id desc
+            """)
+    List<ItemRequestDto> findRequestorRequests(long requestorId);
+
+    @Query("""
+            select new ru.practicum.shareit.request.dto.ItemRequestDto(r.id, r.description, r.created)
+            from ItemRequest r
+            where r.requestor.id <> :userId
+            and r.created <= :cursorCreated and (r.created < :cursorCreated or r.id < :cursorId)
+            order by r.created desc, r.id desc
+            """)
+    List<ItemRequestDto> findOtherRequestsBefore(@Param("userId") long userId,
+                                                 @Param("cursorCreated") LocalDateTime cursorCreated,
+                                                 @Param("cursorId") long cursorId,
+                                                 Pageable page);
+
+    default List<ItemRequestDto> findOtherRequests(long userId, KeysetCursor cursor, Pageable page) {
+        return findOtherRequestsBefore(userId, cursor.timestamp(), cursor.id(), page);
+    }
+
+    @Query("""
+            select new ru.practicum.shareit.request.dto.ItemRequestDto(r.id, r.description, r.created)
+            from ItemRequest r
+            where r.id = ?1
+            """)
+    Optional<ItemRequestDto> findRequestById(long requestId);
+}
@@ -0,0 +1,17 @@
+package ru.practicum.shareit.request.service;
+
+import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.util.KeysetCursor;
+
+import java.util.List;
+
+public interface ItemRequestService {
+
+    ItemRequestDto addRequest(long userId, ItemRequestDto itemRequestDto);
+
+    List<ItemRequestDto> getOwnRequests(long userId);
+
+    List<ItemRequestDto> getOtherRequests(long userId, int size, KeysetCursor cursor);
+
+    ItemRequestDto getRequest(long userId, long requestId);
+}
@@ -0,0 +1,98 @@
+package ru.practicum.shareit.request.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.erorr.exception.EntityNotFoundException;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.mapper.ItemRequestMapper;
+import ru.practicum.shareit.metrics.ServiceMetrics;
+import ru.practicum.shareit.request.dto.ItemAnswerDto;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.request.repository.ItemRequestRepository;
+import ru.practicum.shareit.user.service.UserService;
+import ru.practicum.shareit.util.KeysetCursor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+@Transactional
+public class ItemRequestServiceImpl implements ItemRequestService {
+
+    private final ItemRequestRepository itemRequestRepository;
+    private final ItemRepository itemRepository;
+    private final UserService userServiceImpl;
+    private final ItemRequestMapper itemRequestMapper;
+    private final ServiceMetrics serviceMetrics;
+
+    @Override
+    public ItemRequestDto addRequest(long userId, ItemRequestDto itemRequestDto) {
+        log.info("Adding request from user {}", userId);
+        return serviceMetrics.record("request.add", () -> {
+            ItemRequest itemRequest = itemRequestMapper.mapToItemRequest(itemRequestDto);
+            itemRequest.setRequestor(userServiceImpl.getUser(userId));
+            itemRequest.setCreated(LocalDateTime.now());
+            ItemRequest saved = itemRequestRepository.save(itemRequest);
+            log.info("Request saved with id {}", saved.getId());
+            return itemRequestMapper.mapToItemRequestDto(saved);
+        });
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<ItemRequestDto> getOwnRequests(long userId) {
+        log.info("Get requests of user {}", userId);
+        return serviceMetrics.recordResults("request.list.own", null, () -> {
+            userServiceImpl.getUser(userId);
+            return withAnswers(itemRequestRepository.findRequestorRequests(userId));
+        });
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<ItemRequestDto> getOtherRequests(long userId, int size, KeysetCursor cursor) {
+        log.info("Get requests of other users for user {}", userId);
+        return serviceMetrics.recordResults("request.list.other", null, () -> {
+            userServiceImpl.getUser(userId);
+            return withAnswers(itemRequestRepository.findOtherRequests(userId,
+                    Optional.ofNullable(cursor).orElse(KeysetCursor.FIRST), PageRequest.of(0, size)));
+        });
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public ItemRequestDto getRequest(long userId, long requestId) {
+        log.info("Get request {} for user {}", requestId, userId);
+        return serviceMetrics.record("request.get", () -> {
+            userServiceImpl.getUser(userId);
+            ItemRequestDto request = itemRequestRepository.findRequestById(requestId)
+                    .orElseThrow(() -> new EntityNotFoundException("Request with id " + requestId + " not found"));
+            return withAnswers(List.of(request)).getFirst();
+        });
+    }
+
+    /**
+     * Loads the answers of the whole page with one query on the indexed {@code items.request}.
+     */
+    private List<ItemRequestDto> withAnswers(List<ItemRequestDto> requests) {
+        if (requests.isEmpty()) {
+            return requests;
+        }
+        Map<Long, List<ItemAnswerDto>> answers = itemRepository.findRequestAnswers(requests.stream()
+                        .map(ItemRequestDto::getId)
+                        .toList())
+                .stream()
+                .collect(Collectors.groupingBy(ItemAnswerDto::requestId));
+        requests.forEach(request -> request.setItems(answers.getOrDefault(request.getId(), List.of())));
+        return requests;
+    }
+}
@@ -0,0 +1,120 @@
+package ru.practicum.shareit.seed;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.function.IntFunction;
+
+/**
+ * Fills an empty database with synthetic users, items, bookings and comments
+ * through batched JDBC inserts, then stores each item's comment count. Enabled with the
+ * {@code seed} profile.
+ */
+@Slf4j
+@Component
+@Profile("seed")
+@RequiredArgsConstructor
+public class DataSeeder implements ApplicationRunner {
+
+    private static final String[] WORDS = {"drill", "saw", "ladder", "tent", "bike", "kayak", "projector",
+        "camera", "mixer", "vacuum", "hammer", "grill", "scooter", "speaker", "tripod", "sander"};
+    private static final String[] ADJECTIVES = {"cordless", "electric", "folding", "portable", "heavy",
+        "compact", "professional", "old", "new", "quiet"};
+
+    private final JdbcTemplate jdbcTemplate;
+    private final SeedProperties properties;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        Long existingUsers = jdbcTemplate.queryForObject("select count(*) from users", Long.class);
+        if (existingUsers != null && existingUsers > 0) {
+            log.info("Database already contains {} users, skipping seeding", existingUsers);
+            return;
+        }
+        Random random = new Random(properties.randomSeed());
+        LocalDateTime now = LocalDateTime.now();
+        long started = System.nanoTime();
+
+        insert("insert into users (name, email) values (?, ?)", properties.users(),
+                i -> new Object[]{"user" + i, "user" + i + "@example.com"});
+        long[] userIds = ids("select user_id from users order by user_id");
+
+        insert("insert into items (name, description, available, owner_id) values (?, ?, ?, ?)",
+                properties.items(), i -> new Object[]{
+                    pick(ADJECTIVES, random) + " " + pick(WORDS, random),
+                    "A " + pick(ADJECTIVES, random) + " " + pick(WORDS, random) + " in good condition, item " + i,
+                    random.nextInt(10) != 0,
+                    userIds[skewed(userIds.length, random)]});
+        long[] itemIds = ids("select item_id from items order by item_id");
+
+        insert("insert into booking (start_date, end_date, item_id, booker_id, status) values (?, ?, ?, ?, ?)",
+                properties.bookings(), i -> {
+                    LocalDateTime start = now.minusHours(random.nextInt(24 * 365 * 3)).plusHours(24 * 90);
+                    return new Object[]{
+                        Timestamp.valueOf(start),
+                        Timestamp.valueOf(start.plusHours(1 + random.nextInt(72))),
+                        itemIds[skewed(itemIds.length, random)],
+                        userIds[random.nextInt(userIds.length)],
+                        status(random)};
+                });
+
+        insert("insert into comments (item_id, author_id, text, created_at) values (?, ?, ?, ?)",
+                properties.comments(), i -> new Object[]{
+                    itemIds[skewed(itemIds.length, random)],
+                    userIds[random.nextInt(userIds.length)],
+                    "Worked as expected, comment " + i,
+                    Timestamp.valueOf(now.minusMinutes(random.nextInt(60 * 24 * 365 * 3)))});
+        jdbcTemplate.update("update items set comment_count = "
+                + "(select count(*) from comments c where c.item_id = items.item_id)");
+
+        log.info("Seeded {} users, {} items, {} bookings, {} comments in {} ms", properties.users(),
+                properties.items(), properties.bookings(), properties.comments(),
+                (System.nanoTime() - started) / 1_000_000);
+    }
+
+    private void insert(String sql, int count, IntFunction<Object[]> row) {
+        List<Object[]> batch = new ArrayList<>(properties.batchSize());
+        for (int i = 0; i < count; i++) {
+            batch.add(row.apply(i));
+            if (batch.size() == properties.batchSize()) {
+                jdbcTemplate.batchUpdate(sql, batch);
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            jdbcTemplate.batchUpdate(sql, batch);
+        }
+    }
+
+    private long[] ids(String sql) {
+        return jdbcTemplate.queryForList(sql, Long.class).stream()
+                .mapToLong(Long::longValue)
+                .toArray();
+    }
+
+    private int skewed(int bound, Random random) {
+        return (int) (bound * Math.pow(random.nextDouble(), properties.skew()));
+    }
+
+    private static String pick(String[] values, Random random) {
+        return values[random.nextInt(values.length)];
+    }
+
+    private static String status(Random random) {
+        int roll = random.nextInt(100);
+        if (roll < 70) {
+            return "APPROVED";
+        }
+        return roll < 85 ? "WAITING" : "REJECTED";
+    }
+}
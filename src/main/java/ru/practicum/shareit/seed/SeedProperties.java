@@ -0,0 +1,18 @@
+package ru.practicum.shareit.seed;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Volumes for the synthetic data set. {@code skew} above 1 concentrates items on the
+ * first owners and bookings on the first items, like real heavy owners and popular tools.
+ */
+@ConfigurationProperties("shareit.seed")
+public record SeedProperties(@DefaultValue("10000") int users,
+                             @DefaultValue("50000") int items,
+                             @DefaultValue("1000000") int bookings,
+                             @DefaultValue("100000") int comments,
+                             @DefaultValue("2.0") double skew,
+                             @DefaultValue("5000") int batchSize,
+                             @DefaultValue("42") long randomSeed) {
+}
@@ -10,6 +10,7 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import ru.practicum.shareit.config.QueryBudget;
 import ru.practicum.shareit.mapper.UserMapper;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.service.UserService;
@@ -22,21 +23,25 @@ public class UserController {
     private final UserMapper userMapper;
 
     @GetMapping("/{userId}")
+    @QueryBudget(1)
     public UserDto getUser(@PathVariable long userId) {
         return userMapper.mapToUserDto(userServiceImpl.getUser(userId));
     }
 
     @PostMapping
+    @QueryBudget(1)
     public UserDto createUser(@Valid @RequestBody UserDto userDto) {
         return userMapper.mapToUserDto(userServiceImpl.createUser(userDto));
     }
 
     @PatchMapping("/{userId}")
+    @QueryBudget(4)
     public UserDto updateUser(@PathVariable long userId, @RequestBody UserDto userDto) {
         return userMapper.mapToUserDto(userServiceImpl.updateUser(userId, userDto));
     }
 
     @DeleteMapping("/{userId}")
+    @QueryBudget(6)
     public void deleteUser(@PathVariable long userId) {
         userServiceImpl.deleteUser(userId);
     }
@@ -0,0 +1,95 @@
+package ru.practicum.shareit.user.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.config.datasource.ReadYourWrites;
+import ru.practicum.shareit.config.datasource.ReplicaRoutingDataSource;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.util.TransactionCallbacks;
+
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Read-through cache of users by id. Unknown ids are cached as empty for a shorter time.
+ * Cached users are detached copies, so callers never share or mutate a cached instance.
+ * Every invalidation bumps a stamp; a load only stores its result if no invalidation happened
+ * since it started, so a read racing an update cannot put the old user back after the update.
+ * Loads go to the primary, and a user read from a lagging replica is answered but not stored.
+ */
+@Component
+public class UserCache {
+
+    private static final String NAME = "users";
+
+    private final Cache<Long, Optional<User>> cache;
+    private final AtomicLong invalidations = new AtomicLong();
+
+    public UserCache(UserCacheProperties properties, MeterRegistry meterRegistry) {
+        long ttl = properties.ttl().toNanos();
+        long negativeTtl = properties.negativeTtl().toNanos();
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(properties.maximumSize())
+                .expireAfter(new Expiry<Long, Optional<User>>() {
+                    @Override
+                    public long expireAfterCreate(Long userId, Optional<User> user, long currentTime) {
+                        return user.isPresent() ? ttl : negativeTtl;
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(Long userId, Optional<User> user, long currentTime,
+                                                  long currentDuration) {
+                        return expireAfterCreate(userId, user, currentTime);
+                    }
+
+                    @Override
+                    public long expireAfterRead(Long userId, Optional<User> user, long currentTime,
+                                                long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, NAME);
+    }
+
+    // Loads outside of Cache.get(key, loader): that runs the loader under a synchronized map bin
+    // and would pin a virtual thread's carrier for the whole JDBC round trip.
+    public Optional<User> get(long userId, Function<Long, Optional<User>> loader) {
+        Optional<User> cached = cache.getIfPresent(userId);
+        if (cached == null) {
+            long stamp = invalidations.get();
+            Optional<User> loaded = ReadYourWrites.onPrimary(() -> loader.apply(userId)).map(UserCache::copyOf);
+            if (!ReplicaRoutingDataSource.readsReplica()) {
+                cache.asMap().compute(userId, (id, current) ->
+                        current == null && invalidations.get() == stamp ? loaded : current);
+            }
+            cached = loaded;
+        }
+        return cached.map(UserCache::copyOf);
+    }
+
+    public void invalidate(long userId) {
+        evict(userId);
+        TransactionCallbacks.afterCommit(() -> evict(userId));
+    }
+
+    private void evict(long userId) {
+        invalidations.incrementAndGet();
+        cache.invalidate(userId);
+    }
+
+    private static User copyOf(User user) {
+        User copy = new User();
+        copy.setId(user.getId());
+        copy.setName(user.getName());
+        copy.setEmail(user.getEmail());
+        copy.setVersion(user.getVersion());
+        return copy;
+    }
+}
@@ -0,0 +1,12 @@
+package ru.practicum.shareit.user.cache;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+@ConfigurationProperties("shareit.cache.users")
+public record UserCacheProperties(@DefaultValue("10000") long maximumSize,
+                                  @DefaultValue("10m") Duration ttl,
+                                  @DefaultValue("30s") Duration negativeTtl) {
+}
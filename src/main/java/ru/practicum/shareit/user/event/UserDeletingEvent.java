@@ -0,0 +1,8 @@
+package ru.practicum.shareit.user.event;
+
+/**
+ * Published inside the deleting transaction before the user is removed, while the rows the
+ * delete cascades to can still be read.
+ */
+public record UserDeletingEvent(long userId) {
+}
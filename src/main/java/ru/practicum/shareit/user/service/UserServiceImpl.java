@@ -2,11 +2,17 @@ package ru.practicum.shareit.user.service;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.erorr.exception.EntityNotFoundException;
 import ru.practicum.shareit.mapper.UserMapper;
+import ru.practicum.shareit.metrics.ServiceMetrics;
+import ru.practicum.shareit.user.cache.UserCache;
 import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.event.UserDeletedEvent;
+import ru.practicum.shareit.user.event.UserDeletingEvent;
+import ru.practicum.shareit.user.event.UserRenamedEvent;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 
@@ -20,38 +26,55 @@ public class UserServiceImpl implements UserService {
 
     private final UserRepository userRepository;
     private final UserMapper userMapper;
+    private final ApplicationEventPublisher eventPublisher;
+    private final UserCache userCache;
+    private final ServiceMetrics serviceMetrics;
 
     @Override
     @Transactional(readOnly = true)
     public User getUser(long userId) {
         log.info("Get user with id {}", userId);
-        return userRepository.findById(userId)
-                .orElseThrow(() -> new EntityNotFoundException("User with id " + userId + " not found"));
+        return serviceMetrics.record("user.get", () -> userCache.get(userId, userRepository::findById)
+                .orElseThrow(() -> new EntityNotFoundException("User with id " + userId + " not found")));
     }
 
     @Override
     public User createUser(UserDto userDto) {
         log.info("Adding user {}", userDto);
-        User user = userRepository.save(userMapper.mapToUser(userDto));
-        log.info("User saved {}", user);
+        User user = serviceMetrics.record("user.create", () -> userRepository.save(userMapper.mapToUser(userDto)));
+        userCache.invalidate(user.getId());
+        log.info("User saved with id {}", user.getId());
         return user;
     }
 
     @Override
     public User updateUser(long userId, UserDto userDto) {
         log.info("Updating user {}", userDto);
-        User user = getUser(userId);
-        Optional.ofNullable(userDto.getName()).ifPresent(user::setName);
-        Optional.ofNullable(userDto.getEmail()).ifPresent(user::setEmail);
-        user = userRepository.save(user);
-        log.info("User updated {}", user);
-        return user;
+        return serviceMetrics.record("user.update", () -> {
+            User user = userRepository.findById(userId)
+                    .orElseThrow(() -> new EntityNotFoundException("User with id " + userId + " not found"));
+            boolean renamed = userDto.getName() != null && !userDto.getName().equals(user.getName());
+            Optional.ofNullable(userDto.getName()).ifPresent(user::setName);
+            Optional.ofNullable(userDto.getEmail()).ifPresent(user::setEmail);
+            user = userRepository.save(user);
+            if (renamed) {
+                eventPublisher.publishEvent(new UserRenamedEvent(userId));
+            }
+            userCache.invalidate(userId);
+            log.info("User updated with id {}", user.getId());
+            return user;
+        });
     }
 
     @Override
     public void deleteUser(long userId) {
         log.info("Deleting user with id {}", userId);
-        userRepository.deleteById(userId);
+        serviceMetrics.record("user.delete", () -> {
+            eventPublisher.publishEvent(new UserDeletingEvent(userId));
+            userRepository.deleteById(userId);
+            userCache.invalidate(userId);
+            eventPublisher.publishEvent(new UserDeletedEvent(userId));
+        });
         log.info("User deleted");
     }
 }
\ No newline at end of file
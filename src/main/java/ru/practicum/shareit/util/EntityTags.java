@@ -0,0 +1,39 @@
+package ru.practicum.shareit.util;
+
+/**
+ * Strong entity tags of the form {@code "<version>-<hash>"}: the version of the entity itself
+ * followed by a hash of the versions of everything else its representation includes.
+ */
+public final class EntityTags {
+
+    private EntityTags() {
+    }
+
+    public static String of(long version, long... dependencies) {
+        long hash = 0x9E3779B97F4A7C15L;
+        for (long dependency : dependencies) {
+            hash = Long.rotateLeft(hash ^ dependency * 0xC2B2AE3D27D4EB4FL, 31) * 0x165667B19E3779F9L;
+        }
+        return "\"" + version + "-" + Long.toHexString(hash) + "\"";
+    }
+
+    /**
+     * Returns the entity version an {@code If-Match} header asks for, {@code null} if the header
+     * is absent or {@code *}, and -1 if it is not one of our strong tags, which matches no version.
+     */
+    public static Long version(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.strip().equals("*")) {
+            return null;
+        }
+        String tag = ifMatch.strip();
+        int dash = tag.indexOf('-');
+        if (!tag.startsWith("\"") || dash < 0) {
+            return -1L;
+        }
+        try {
+            return Long.parseLong(tag.substring(1, dash));
+        } catch (NumberFormatException e) {
+            return -1L;
+        }
+    }
+}
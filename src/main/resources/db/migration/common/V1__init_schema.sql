@@ -1,8 +1,3 @@
-DROP TABLE IF EXISTS booking;
-DROP TABLE IF EXISTS comments;
-DROP TABLE IF EXISTS items;
-DROP TABLE IF EXISTS users;
-
 CREATE TABLE IF NOT EXISTS users
 (
     user_id BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
@@ -42,4 +37,4 @@ CREATE TABLE IF NOT EXISTS comments
     text       VARCHAR(255),
     created_at TIMESTAMP WITHOUT TIME ZONE,
     CONSTRAINT pk_comments PRIMARY KEY (id)
-)
\ No newline at end of file
+);
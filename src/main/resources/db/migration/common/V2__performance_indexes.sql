@@ -0,0 +1,4 @@
+CREATE INDEX IF NOT EXISTS idx_booking_booker_start ON booking (booker_id, start_date);
+CREATE INDEX IF NOT EXISTS idx_booking_item_start ON booking (item_id, start_date);
+CREATE INDEX IF NOT EXISTS idx_items_owner ON items (owner_id);
+CREATE INDEX IF NOT EXISTS idx_comments_item ON comments (item_id);
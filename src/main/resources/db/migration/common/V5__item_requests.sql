@@ -0,0 +1,20 @@
+CREATE TABLE IF NOT EXISTS requests
+(
+    request_id   BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
+    description  VARCHAR(1000)                           NOT NULL,
+    requestor_id BIGINT REFERENCES users (user_id) ON DELETE CASCADE,
+    created_at   TIMESTAMP WITHOUT TIME ZONE             NOT NULL,
+    version      BIGINT DEFAULT 0                        NOT NULL,
+    CONSTRAINT pk_requests PRIMARY KEY (request_id)
+);
+
+CREATE INDEX IF NOT EXISTS idx_requests_requestor_created ON requests (requestor_id, created_at);
+CREATE INDEX IF NOT EXISTS idx_requests_created ON requests (created_at, request_id);
+
+-- Databases created before this migration may hold request ids with no request behind them.
+UPDATE items SET request = NULL
+WHERE request IS NOT NULL
+  AND NOT EXISTS (SELECT 1 FROM requests r WHERE r.request_id = items.request);
+ALTER TABLE items ADD CONSTRAINT fk_items_request FOREIGN KEY (request) REFERENCES requests (request_id)
+    ON DELETE SET NULL;
+CREATE INDEX IF NOT EXISTS idx_items_request ON items (request);
@@ -0,0 +1,4 @@
+ALTER TABLE items ADD COLUMN IF NOT EXISTS comment_count BIGINT DEFAULT 0 NOT NULL;
+UPDATE items SET comment_count = (SELECT COUNT(*) FROM comments c WHERE c.item_id = items.item_id);
+
+CREATE INDEX IF NOT EXISTS idx_comments_item_created ON comments (item_id, created_at, id);
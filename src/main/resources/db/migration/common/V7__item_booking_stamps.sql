@@ -0,0 +1 @@
+ALTER TABLE items ADD COLUMN IF NOT EXISTS booking_stamp BIGINT DEFAULT 0 NOT NULL;
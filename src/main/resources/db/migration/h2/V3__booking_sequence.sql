@@ -0,0 +1,4 @@
+-- H2 databases are in-memory and always migrated empty, so the sequence starts at its first block.
+CREATE SEQUENCE IF NOT EXISTS booking_seq START WITH 50 INCREMENT BY 50;
+ALTER TABLE booking ALTER COLUMN booking_id DROP IDENTITY;
+ALTER TABLE booking ALTER COLUMN booking_id SET DEFAULT NEXT VALUE FOR booking_seq;
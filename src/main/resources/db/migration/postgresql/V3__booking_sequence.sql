@@ -0,0 +1,6 @@
+-- Hibernate's pooled optimizer treats each value as the upper end of a block of 50 ids,
+-- so the sequence resumes one full block above the highest existing booking id.
+CREATE SEQUENCE IF NOT EXISTS booking_seq INCREMENT BY 50;
+ALTER TABLE booking ALTER COLUMN booking_id DROP IDENTITY IF EXISTS;
+ALTER TABLE booking ALTER COLUMN booking_id SET DEFAULT nextval('booking_seq');
+SELECT setval('booking_seq', COALESCE(MAX(booking_id), 0) + 50, false) FROM booking;
@@ -0,0 +1,163 @@
+package ru.practicum.shareit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.item.service.ItemService;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.doAnswer;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class EntityTagTests {
+
+    private static final String USER_HEADER = "X-Sharer-User-Id";
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @SpyBean
+    private ItemService itemService;
+    @SpyBean
+    private BookingService bookingService;
+
+    private Fixtures fixtures;
+    private long ownerId;
+    private long bookerId;
+    private long itemId;
+    private long bookingId;
+
+    @BeforeEach
+    void setUp() {
+        fixtures = Fixtures.of(jdbcTemplate, "etag");
+        ownerId = fixtures.user("owner");
+        bookerId = fixtures.user("booker");
+        itemId = fixtures.item("kayak", ownerId);
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        bookingId = fixtures.booking(itemId, bookerId, start, start.plusDays(1), "WAITING");
+    }
+
+    @Test
+    void approvalChangesBookingAndOwnerItemTags() throws Exception {
+        String bookingTag = eTag(get("/bookings/{bookingId}", bookingId).header(USER_HEADER, bookerId));
+        String ownerTag = eTag(get("/items/{itemId}", itemId).header(USER_HEADER, ownerId));
+        String bookerTag = eTag(get("/items/{itemId}", itemId).header(USER_HEADER, bookerId));
+        mockMvc.perform(get("/items/{itemId}", itemId)
+                        .header(USER_HEADER, ownerId)
+                        .header(HttpHeaders.IF_NONE_MATCH, ownerTag))
+                .andExpect(status().isNotModified());
+
+        mockMvc.perform(patch("/bookings/{bookingId}", bookingId)
+                        .header(USER_HEADER, ownerId)
+                        .param("approved", "true"))
+                .andExpect(status().isOk());
+
+        assertNotEquals(bookingTag, eTag(get("/bookings/{bookingId}", bookingId).header(USER_HEADER, bookerId)));
+        assertNotEquals(ownerTag, eTag(get("/items/{itemId}", itemId).header(USER_HEADER, ownerId)));
+        assertEquals(bookerTag, eTag(get("/items/{itemId}", itemId).header(USER_HEADER, bookerId)));
+        mockMvc.perform(get("/items/{itemId}", itemId)
+                        .header(USER_HEADER, ownerId)
+                        .header(HttpHeaders.IF_NONE_MATCH, ownerTag))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void renamingACommentAuthorChangesTheItemTag() throws Exception {
+        fixtures.comment(itemId, bookerId, "Dry inside", LocalDateTime.now());
+        String tag = eTag(get("/items/{itemId}", itemId).header(USER_HEADER, bookerId));
+
+        mockMvc.perform(patch("/users/{userId}", bookerId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"" + fixtures.name("renamed") + "\"}"))
+                .andExpect(status().isOk());
+
+        assertNotEquals(tag, eTag(get("/items/{itemId}", itemId).header(USER_HEADER, bookerId)));
+    }
+
+    @Test
+    void updateWithStaleTagIsRejected() throws Exception {
+        String tag = eTag(get("/items/{itemId}", itemId).header(USER_HEADER, ownerId));
+        String updatedTag = mockMvc.perform(rename(tag, "Canoe"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        assertNotEquals(tag, updatedTag);
+        mockMvc.perform(rename(tag, "Raft"))
+                .andExpect(status().isPreconditionFailed());
+        mockMvc.perform(rename(updatedTag, "Raft"))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void itemTagDescribesABodyReadAfterAConcurrentUpdate() throws Exception {
+        doAnswer(invocation -> {
+            Object tag = invocation.callRealMethod();
+            jdbcTemplate.update("update items set name = ?, version = version + 1 where item_id = ?",
+                    fixtures.name("canoe"), itemId);
+            return tag;
+        }).doCallRealMethod().when(itemService).getItemETag(ownerId, itemId);
+
+        MockHttpServletResponse response = mockMvc.perform(get("/items/{itemId}", itemId).header(USER_HEADER, ownerId))
+                .andExpect(status().isOk())
+                .andReturn().getResponse();
+
+        assertTrue(response.getContentAsString().contains(fixtures.name("canoe")));
+        assertEquals(List.of(eTag(get("/items/{itemId}", itemId).header(USER_HEADER, ownerId))),
+                response.getHeaders(HttpHeaders.ETAG));
+        mockMvc.perform(rename(response.getHeader(HttpHeaders.ETAG), "Raft"))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void bookingTagDescribesABodyReadAfterAConcurrentApproval() throws Exception {
+        doAnswer(invocation -> {
+            Object tag = invocation.callRealMethod();
+            jdbcTemplate.update("update booking set status = 'APPROVED', version = version + 1 where booking_id = ?",
+                    bookingId);
+            return tag;
+        }).doCallRealMethod().when(bookingService).getBookingETag(bookerId, bookingId);
+
+        MockHttpServletResponse response = mockMvc.perform(get("/bookings/{bookingId}", bookingId)
+                        .header(USER_HEADER, bookerId))
+                .andExpect(status().isOk())
+                .andReturn().getResponse();
+
+        assertTrue(response.getContentAsString().contains("APPROVED"));
+        assertEquals(List.of(eTag(get("/bookings/{bookingId}", bookingId).header(USER_HEADER, bookerId))),
+                response.getHeaders(HttpHeaders.ETAG));
+    }
+
+    private MockHttpServletRequestBuilder rename(String ifMatch, String name) {
+        return patch("/items/{itemId}", itemId)
+                .header(USER_HEADER, ownerId)
+                .header(HttpHeaders.IF_MATCH, ifMatch)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"name\":\"" + name + "\"}");
+    }
+
+    private String eTag(MockHttpServletRequestBuilder request) throws Exception {
+        return mockMvc.perform(request)
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+    }
+}
@@ -0,0 +1,78 @@
+package ru.practicum.shareit;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Inserts test rows with plain JDBC, bypassing services and caches. Spring tests share one
+ * in-memory database per context, so every instance names its rows with a unique prefix.
+ */
+public final class Fixtures {
+
+    private static final AtomicInteger FIXTURES = new AtomicInteger();
+
+    private final JdbcTemplate jdbcTemplate;
+    private final String prefix;
+
+    private Fixtures(JdbcTemplate jdbcTemplate, String prefix) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.prefix = prefix;
+    }
+
+    public static Fixtures of(JdbcTemplate jdbcTemplate, String kind) {
+        return new Fixtures(jdbcTemplate, kind + FIXTURES.incrementAndGet() + "-");
+    }
+
+    /**
+     * The same names written to another database, such as a replica.
+     */
+    public Fixtures on(JdbcTemplate other) {
+        return new Fixtures(other, prefix);
+    }
+
+    public String name(String suffix) {
+        return prefix + suffix;
+    }
+
+    public long user(String name) {
+        String email = name(name) + "@example.com";
+        jdbcTemplate.update("insert into users (name, email) values (?, ?)", name(name), email);
+        return jdbcTemplate.queryForObject("select user_id from users where email = ?", Long.class, email);
+    }
+
+    public long item(String name, long ownerId) {
+        return item(name, ownerId, null);
+    }
+
+    public long item(String name, long ownerId, Long requestId) {
+        jdbcTemplate.update("insert into items (name, description, available, owner_id, request) "
+                + "values (?, ?, ?, ?, ?)", name(name), "A " + name, true, ownerId, requestId);
+        return jdbcTemplate.queryForObject("select max(item_id) from items where owner_id = ?", Long.class,
+                ownerId);
+    }
+
+    public long booking(long itemId, long bookerId, LocalDateTime start, LocalDateTime end, String status) {
+        jdbcTemplate.update("insert into booking (start_date, end_date, item_id, booker_id, status) "
+                + "values (?, ?, ?, ?, ?)", Timestamp.valueOf(start), Timestamp.valueOf(end), itemId, bookerId, status);
+        return jdbcTemplate.queryForObject("select max(booking_id) from booking where item_id = ?", Long.class,
+                itemId);
+    }
+
+    public long comment(long itemId, long authorId, String text, LocalDateTime created) {
+        jdbcTemplate.update("insert into comments (item_id, author_id, text, created_at) values (?, ?, ?, ?)",
+                itemId, authorId, text, Timestamp.valueOf(created));
+        jdbcTemplate.update("update items set comment_count = comment_count + 1, version = version + 1 "
+                + "where item_id = ?", itemId);
+        return jdbcTemplate.queryForObject("select max(id) from comments where item_id = ?", Long.class, itemId);
+    }
+
+    public long request(String description, long requestorId, LocalDateTime created) {
+        jdbcTemplate.update("insert into requests (description, requestor_id, created_at) values (?, ?, ?)",
+                name(description), requestorId, Timestamp.valueOf(created));
+        return jdbcTemplate.queryForObject("select max(request_id) from requests where requestor_id = ?",
+                Long.class, requestorId);
+    }
+}
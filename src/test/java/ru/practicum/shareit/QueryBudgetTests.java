@@ -0,0 +1,212 @@
+package ru.practicum.shareit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import ru.practicum.shareit.config.QueryBudgetInterceptor;
+import ru.practicum.shareit.user.cache.UserCache;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Pins the number of SQL statements each endpoint runs, including lazy loads while the
+ * response is serialized. The user cache is cleared first so every request starts cold.
+ */
+@SpringBootTest(properties = "shareit.query-budget.mode=fail")
+@AutoConfigureMockMvc
+class QueryBudgetTests {
+
+    private static final String USER_HEADER = "X-Sharer-User-Id";
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private UserCache userCache;
+
+    private long ownerId;
+    private long bookerId;
+    private long otherBookerId;
+    private long firstItemId;
+    private long secondItemId;
+    private long pastBookingId;
+    private long waitingBookingId;
+
+    @BeforeEach
+    void setUp() {
+        Fixtures fixtures = Fixtures.of(jdbcTemplate, "budget");
+        ownerId = fixtures.user("owner");
+        bookerId = fixtures.user("booker");
+        otherBookerId = fixtures.user("other");
+        firstItemId = fixtures.item("drill", ownerId);
+        secondItemId = fixtures.item("saw", ownerId);
+        long thirdItemId = fixtures.item("ladder", ownerId);
+        LocalDateTime now = LocalDateTime.now();
+        pastBookingId = fixtures.booking(firstItemId, bookerId, now.minusDays(3), now.minusDays(2), "APPROVED");
+        waitingBookingId = fixtures.booking(secondItemId, bookerId, now.plusDays(1), now.plusDays(2), "WAITING");
+        fixtures.booking(thirdItemId, otherBookerId, now.plusDays(3), now.plusDays(4), "APPROVED");
+        fixtures.comment(firstItemId, bookerId, "Works", now.minusDays(1));
+        for (int i = 0; i < 3; i++) {
+            long requestId = fixtures.request("request" + i, bookerId, now.minusHours(i));
+            fixtures.item("answer" + i, ownerId, requestId);
+        }
+        List.of(ownerId, bookerId, otherBookerId).forEach(userCache::invalidate);
+    }
+
+    @Test
+    void deleteUser() throws Exception {
+        assertEquals(6, queries(delete("/users/{userId}", bookerId)));
+    }
+
+    @Test
+    void getUser() throws Exception {
+        assertEquals(1, queries(get("/users/{userId}", bookerId)));
+    }
+
+    @Test
+    void getAllOwnerItems() throws Exception {
+        assertEquals(3, queries(get("/items").header(USER_HEADER, ownerId)));
+    }
+
+    @Test
+    void getItem() throws Exception {
+        assertEquals(5, queries(get("/items/{itemId}", firstItemId).header(USER_HEADER, ownerId)));
+    }
+
+    @Test
+    void getItemNotModified() throws Exception {
+        String eTag = mockMvc.perform(get("/items/{itemId}", firstItemId).header(USER_HEADER, ownerId))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertEquals(1, queries(get("/items/{itemId}", firstItemId)
+                .header(USER_HEADER, ownerId)
+                .header(HttpHeaders.IF_NONE_MATCH, eTag), HttpStatus.NOT_MODIFIED));
+    }
+
+    @Test
+    void getItemAvailability() throws Exception {
+        LocalDateTime from = LocalDateTime.now().plusDays(1).withNano(0);
+        MockHttpServletRequestBuilder request = get("/items/{itemId}/availability", firstItemId)
+                .param("from", from.toString())
+                .param("to", from.plusDays(7).toString());
+        assertEquals(2, queries(request));
+        assertEquals(0, queries(request));
+    }
+
+    @Test
+    void getItemComments() throws Exception {
+        assertEquals(1, queries(get("/items/{itemId}/comments", firstItemId)));
+    }
+
+    @Test
+    void getItemsByText() throws Exception {
+        assertEquals(0, queries(get("/items/search").param("text", "drill")));
+    }
+
+    @Test
+    void getUserBookingById() throws Exception {
+        assertEquals(2, queries(get("/bookings/{bookingId}", pastBookingId).header(USER_HEADER, bookerId)));
+    }
+
+    @Test
+    void getUserBookingByIdNotModified() throws Exception {
+        String eTag = mockMvc.perform(get("/bookings/{bookingId}", pastBookingId).header(USER_HEADER, bookerId))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertEquals(1, queries(get("/bookings/{bookingId}", pastBookingId)
+                .header(USER_HEADER, bookerId)
+                .header(HttpHeaders.IF_NONE_MATCH, eTag), HttpStatus.NOT_MODIFIED));
+    }
+
+    @Test
+    void getAllUserBooking() throws Exception {
+        assertEquals(2, queries(get("/bookings").header(USER_HEADER, bookerId)));
+    }
+
+    @Test
+    void getAllOwnerBooking() throws Exception {
+        assertEquals(2, queries(get("/bookings/owner").header(USER_HEADER, ownerId)));
+    }
+
+    @Test
+    void getOwnerBookingStats() throws Exception {
+        assertEquals(3, queries(get("/bookings/owner/stats").header(USER_HEADER, ownerId)));
+        assertEquals(0, queries(get("/bookings/owner/stats").header(USER_HEADER, ownerId)));
+    }
+
+    @Test
+    void getOwnRequests() throws Exception {
+        assertEquals(3, queries(get("/requests").header(USER_HEADER, bookerId)));
+    }
+
+    @Test
+    void getOtherRequests() throws Exception {
+        assertEquals(3, queries(get("/requests/all").param("size", "10").header(USER_HEADER, ownerId)));
+    }
+
+    @Test
+    void handleBookingApproval() throws Exception {
+        assertEquals(5, queries(patch("/bookings/{bookingId}", waitingBookingId)
+                .header(USER_HEADER, ownerId)
+                .param("approved", "true")));
+    }
+
+    @Test
+    void addBooking() throws Exception {
+        LocalDateTime start = LocalDateTime.now().plusDays(10);
+        String body = String.format("{\"itemId\":%d,\"start\":\"%s\",\"end\":\"%s\"}", firstItemId, start,
+                start.plusDays(1));
+        int statements = queries(post("/bookings")
+                .header(USER_HEADER, otherBookerId)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(body));
+        // The pooled sequence is only called once per 50 ids, so this is 4 or 5.
+        assertTrue(statements <= 5, () -> "POST /bookings ran " + statements + " statements");
+    }
+
+    @Test
+    void addBookings() throws Exception {
+        LocalDateTime start = LocalDateTime.now().plusDays(20);
+        List<String> entries = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            LocalDateTime slot = start.plusHours(2L * i);
+            entries.add(String.format("{\"itemId\":%d,\"start\":\"%s\",\"end\":\"%s\"}",
+                    i % 2 == 0 ? firstItemId : secondItemId, slot, slot.plusHours(1)));
+        }
+        int statements = queries(post("/bookings/batch")
+                .header(USER_HEADER, otherBookerId)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("[" + String.join(",", entries) + "]"));
+        // 500 ids take 10 or 11 calls to the pooled sequence, depending on the ids left over.
+        assertTrue(statements <= 14, () -> "POST /bookings/batch ran " + statements + " statements");
+    }
+
+    private int queries(MockHttpServletRequestBuilder request) throws Exception {
+        return queries(request, HttpStatus.OK);
+    }
+
+    private int queries(MockHttpServletRequestBuilder request, HttpStatus expectedStatus) throws Exception {
+        MvcResult result = mockMvc.perform(request)
+                .andExpect(status().is(expectedStatus.value()))
+                .andReturn();
+        return (int) result.getRequest().getAttribute(QueryBudgetInterceptor.QUERY_COUNT);
+    }
+}
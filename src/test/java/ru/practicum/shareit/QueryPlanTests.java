@@ -0,0 +1,271 @@
+package ru.practicum.shareit;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import ru.practicum.shareit.booking.model.BookingFilter;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.model.State;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.repository.CommentRepository;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.util.KeysetCursor;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.temporal.Temporal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+/**
+ * Runs every indexed repository query against H2, captures the SQL Hibernate sent together with
+ * its bound parameters and fails if the EXPLAIN plan of that SQL, with the parameters inlined as
+ * literals, falls back to a full scan of booking, items or comments.
+ * The text search and the startup index rebuilds scan by design and are not listed here.
+ */
+@SpringBootTest
+class QueryPlanTests {
+
+    private static final List<String> TABLES = List.of("BOOKING", "ITEMS", "COMMENTS");
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private BookingRepository bookingRepository;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private CommentRepository commentRepository;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private long userId;
+    private long itemId;
+
+    @BeforeEach
+    void setUp() {
+        Long seeded = jdbcTemplate.queryForObject("select count(*) from users where email like 'plan%'", Long.class);
+        if (seeded == null || seeded == 0) {
+            seed();
+        }
+        userId = jdbcTemplate.queryForObject("select min(user_id) from users where email like 'plan%'", Long.class);
+        itemId = jdbcTemplate.queryForObject("select min(item_id) from items where owner_id = ?", Long.class, userId);
+    }
+
+    @Test
+    void bookingQueriesUseIndexes() {
+        LocalDateTime now = LocalDateTime.now();
+        for (State state : State.values()) {
+            assertIndexed(() -> bookingRepository.findBookerBookings(userId, BookingFilter.of(state, now),
+                    KeysetCursor.FIRST, PageRequest.of(0, 20)));
+            assertIndexed(() -> bookingRepository.findOwnerBookings(userId, BookingFilter.of(state, now),
+                    KeysetCursor.FIRST, PageRequest.of(0, 20)));
+        }
+        assertIndexed(() -> bookingRepository.getUserBookingById(1L, userId));
+        assertIndexed(() -> bookingRepository.getUserBookingVersion(1L, userId));
+        assertIndexed(() -> bookingRepository.findLastBookingForItem(itemId, now, BookingStatus.REJECTED));
+        assertIndexed(() -> bookingRepository.findNextBookingForItem(itemId, now, BookingStatus.REJECTED));
+        assertIndexed(() -> bookingRepository.findBookingForComment(itemId, userId, now));
+        assertIndexed(() -> bookingRepository.countOwnerBookingsByStatus(userId, now));
+        assertIndexed(() -> bookingRepository.findOwnerBookingPeriods(userId, now));
+        assertIndexed(() -> bookingRepository.findLastAndNextByItemIdIn(List.of(itemId, itemId + 1),
+                BookingStatus.REJECTED, now));
+    }
+
+    @Test
+    void itemQueriesUseIndexes() {
+        entityManagerFactory.getCache().evictAll();
+        entityManagerFactory.unwrap(SessionFactory.class).getCache().evictQueryRegions();
+        assertIndexed(() -> itemRepository.findByOwnerIdOrderByIdAsc(userId));
+        assertIndexed(() -> itemRepository.findItemVersion(itemId, userId, LocalDateTime.now(),
+                BookingStatus.REJECTED));
+        assertIndexed(() -> commentRepository.findNewestByItemIds(List.of(itemId, itemId + 1), 10));
+        assertIndexed(() -> commentRepository.findItemComments(itemId, KeysetCursor.FIRST, PageRequest.of(0, 20)));
+        assertIndexed(() -> itemRepository.findRequestAnswers(List.of(1L, 2L)));
+    }
+
+    private void assertIndexed(Runnable query) {
+        List<String> statements = StatementRecorder.record(query);
+        List<String> queries = statements.stream()
+                .filter(sql -> sql.strip().toLowerCase(Locale.ROOT).startsWith("select"))
+                .toList();
+        assertFalse(queries.isEmpty(), "No query was captured");
+        for (String sql : queries) {
+            String plan = jdbcTemplate.queryForObject("EXPLAIN " + sql, String.class);
+            for (String table : TABLES) {
+                assertFalse(plan.contains("PUBLIC." + table + ".tableScan"),
+                        () -> "Full scan of " + table + " in plan:\n" + plan);
+            }
+        }
+    }
+
+    private void seed() {
+        List<Object[]> users = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            users.add(new Object[]{"plan" + i, "plan" + i + "@example.com"});
+        }
+        jdbcTemplate.batchUpdate("insert into users (name, email) values (?, ?)", users);
+        List<Long> userIds = jdbcTemplate.queryForList(
+                "select user_id from users where email like 'plan%' order by user_id", Long.class);
+
+        List<Object[]> items = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            items.add(new Object[]{"item" + i, "description " + i, true, userIds.get(i % userIds.size())});
+        }
+        jdbcTemplate.batchUpdate("insert into items (name, description, available, owner_id) values (?, ?, ?, ?)",
+                items);
+        List<Long> itemIds = jdbcTemplate.queryForList("select item_id from items order by item_id", Long.class);
+
+        LocalDateTime now = LocalDateTime.now();
+        List<Object[]> bookings = new ArrayList<>();
+        List<Object[]> comments = new ArrayList<>();
+        for (int i = 0; i < 5000; i++) {
+            LocalDateTime start = now.minusDays(i % 400).plusDays(30);
+            bookings.add(new Object[]{Timestamp.valueOf(start), Timestamp.valueOf(start.plusHours(5)),
+                itemIds.get(i % itemIds.size()), userIds.get((i + 1) % userIds.size()), "APPROVED"});
+            comments.add(new Object[]{itemIds.get(i % itemIds.size()), userIds.get(i % userIds.size()),
+                "comment " + i, Timestamp.valueOf(now.minusDays(i % 100))});
+        }
+        jdbcTemplate.batchUpdate("insert into booking (start_date, end_date, item_id, booker_id, status) "
+                + "values (?, ?, ?, ?, ?)", bookings);
+        jdbcTemplate.batchUpdate("insert into comments (item_id, author_id, text, created_at) values (?, ?, ?, ?)",
+                comments);
+        jdbcTemplate.execute("ANALYZE");
+    }
+
+    @TestConfiguration
+    static class RecordingConfig {
+
+        @Bean
+        static BeanPostProcessor recordingDataSource() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    return bean instanceof DataSource dataSource ? new StatementRecorder(dataSource) : bean;
+                }
+            };
+        }
+    }
+
+    /**
+     * Hands out connections whose prepared statements remember the values bound to them, so the
+     * statements a query executed can be replayed with literals instead of {@code ?} placeholders.
+     */
+    static class StatementRecorder extends DelegatingDataSource {
+
+        private static volatile List<String> recorded;
+
+        StatementRecorder(DataSource dataSource) {
+            super(dataSource);
+        }
+
+        static synchronized List<String> record(Runnable query) {
+            recorded = new ArrayList<>();
+            try {
+                query.run();
+                return List.copyOf(recorded);
+            } finally {
+                recorded = null;
+            }
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            return recording(super.getConnection());
+        }
+
+        @Override
+        public Connection getConnection(String username, String password) throws SQLException {
+            return recording(super.getConnection(username, password));
+        }
+
+        private static Connection recording(Connection connection) {
+            return proxy(Connection.class, connection, (method, args, result) ->
+                    method.getName().equals("prepareStatement")
+                            ? recording((PreparedStatement) result, (String) args[0])
+                            : result);
+        }
+
+        private static PreparedStatement recording(PreparedStatement statement, String sql) {
+            Map<Integer, Object> parameters = new TreeMap<>();
+            return proxy(PreparedStatement.class, statement, (method, args, result) -> {
+                String name = method.getName();
+                List<String> statements = recorded;
+                if (name.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer index) {
+                    parameters.put(index, name.equals("setNull") ? null : args[1]);
+                } else if (name.equals("clearParameters")) {
+                    parameters.clear();
+                } else if (name.startsWith("execute") && (args == null || args.length == 0) && statements != null) {
+                    statements.add(inline(sql, parameters));
+                }
+                return result;
+            });
+        }
+
+        private static String inline(String sql, Map<Integer, Object> parameters) {
+            StringBuilder inlined = new StringBuilder();
+            boolean quoted = false;
+            int index = 0;
+            for (char c : sql.toCharArray()) {
+                if (c == '\'') {
+                    quoted = !quoted;
+                }
+                if (c == '?' && !quoted) {
+                    inlined.append(literal(parameters.get(++index)));
+                } else {
+                    inlined.append(c);
+                }
+            }
+            return inlined.toString();
+        }
+
+        private static String literal(Object value) {
+            if (value == null) {
+                return "NULL";
+            }
+            if (value instanceof Number || value instanceof Boolean) {
+                return value.toString();
+            }
+            if (value instanceof Timestamp || value instanceof Temporal) {
+                return "TIMESTAMP '" + value.toString().replace('T', ' ') + "'";
+            }
+            return "'" + value.toString().replace("'", "''") + "'";
+        }
+
+        private interface Interceptor {
+            Object after(Method method, Object[] args, Object result) throws Throwable;
+        }
+
+        @SuppressWarnings("unchecked")
+        private static <T> T proxy(Class<T> type, T target, Interceptor interceptor) {
+            return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (proxy, method, args) -> {
+                try {
+                    return interceptor.after(method, args, method.invoke(target, args));
+                } catch (InvocationTargetException e) {
+                    throw e.getCause();
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package ru.practicum.shareit.booking;
+
+import com.jayway.jsonpath.JsonPath;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.Fixtures;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class BookingBatchTests {
+
+    private static final String USER_HEADER = "X-Sharer-User-Id";
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private long bookerId;
+    private long itemId;
+    private long otherItemId;
+    private LocalDateTime start;
+
+    @BeforeEach
+    void setUp() {
+        Fixtures fixtures = Fixtures.of(jdbcTemplate, "batch");
+        long ownerId = fixtures.user("owner");
+        bookerId = fixtures.user("booker");
+        itemId = fixtures.item("drill", ownerId);
+        otherItemId = fixtures.item("saw", ownerId);
+        start = LocalDateTime.now().plusDays(1).withNano(0);
+    }
+
+    @Test
+    void mixedBatchSavesValidEntriesAndReportsTheRest() throws Exception {
+        String body = "[" + String.join(",",
+                entry(itemId, start, start.plusHours(1)),
+                entry(itemId, start.plusHours(3), start.plusHours(2)),
+                entry(Long.MAX_VALUE, start, start.plusHours(1)),
+                "{\"start\":\"" + start + "\",\"end\":\"" + start.plusHours(1) + "\"}",
+                entry(otherItemId, start, start.plusHours(1))) + "]";
+
+        String response = mockMvc.perform(post("/bookings/batch")
+                        .header(USER_HEADER, bookerId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        List<Integer> indexes = JsonPath.read(response, "$[*].index");
+        assertEquals(List.of(0, 1, 2, 3, 4), indexes);
+        assertSaved(response, 0, itemId);
+        assertEquals("start Start date cannot be after the end date", JsonPath.read(response, "$[1].error"));
+        assertEquals("Item not found", JsonPath.read(response, "$[2].error"));
+        assertEquals("itemId must not be null", JsonPath.read(response, "$[3].error"));
+        assertSaved(response, 4, otherItemId);
+        for (int index = 1; index <= 3; index++) {
+            assertNull(JsonPath.read(response, "$[" + index + "].booking"));
+        }
+        assertEquals(List.of(itemId, otherItemId), jdbcTemplate.queryForList(
+                "select item_id from booking where booker_id = ? order by item_id", Long.class, bookerId));
+    }
+
+    @Test
+    void batchOverTheLimitIsRejected() throws Exception {
+        List<String> entries = new ArrayList<>();
+        for (int i = 0; i < 501; i++) {
+            entries.add(entry(itemId, start.plusHours(2L * i), start.plusHours(2L * i + 1)));
+        }
+
+        mockMvc.perform(post("/bookings/batch")
+                        .header(USER_HEADER, bookerId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[" + String.join(",", entries) + "]"))
+                .andExpect(status().isBadRequest());
+
+        assertEquals(0, jdbcTemplate.queryForObject("select count(*) from booking where booker_id = ?",
+                Long.class, bookerId));
+    }
+
+    private void assertSaved(String response, int index, long expectedItemId) {
+        assertNull(JsonPath.read(response, "$[" + index + "].error"));
+        assertNotNull(JsonPath.read(response, "$[" + index + "].booking.id"));
+        assertEquals(expectedItemId,
+                ((Number) JsonPath.read(response, "$[" + index + "].booking.item.id")).longValue());
+        assertEquals("WAITING", JsonPath.read(response, "$[" + index + "].booking.status"));
+    }
+
+    private static String entry(long itemId, LocalDateTime start, LocalDateTime end) {
+        return String.format("{\"itemId\":%d,\"start\":\"%s\",\"end\":\"%s\"}", itemId, start, end);
+    }
+}
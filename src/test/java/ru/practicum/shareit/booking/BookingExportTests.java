@@ -0,0 +1,66 @@
+package ru.practicum.shareit.booking;
+
+import com.jayway.jsonpath.JsonPath;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import ru.practicum.shareit.Fixtures;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class BookingExportTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void exportWritesOneBookingPerLine() throws Exception {
+        Fixtures fixtures = Fixtures.of(jdbcTemplate, "export");
+        long ownerId = fixtures.user("owner");
+        long bookerId = fixtures.user("booker");
+        long itemId = fixtures.item("ladder", ownerId);
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        List<Long> bookings = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            bookings.addFirst(fixtures.booking(itemId, bookerId, start.plusDays(i), start.plusDays(i).plusHours(1),
+                    "WAITING"));
+        }
+
+        MvcResult started = mockMvc.perform(get("/bookings/owner/export").header("X-Sharer-User-Id", ownerId))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        MockHttpServletResponse response = mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andReturn().getResponse();
+
+        assertEquals("application/x-ndjson", response.getContentType());
+        List<Long> exported = Arrays.stream(response.getContentAsString().split("\n"))
+                .map(line -> ((Number) JsonPath.read(line, "$.id")).longValue())
+                .toList();
+        assertEquals(bookings, exported);
+    }
+
+    @Test
+    void unknownOwnerIsRejectedBeforeStreaming() throws Exception {
+        mockMvc.perform(get("/bookings/owner/export").header("X-Sharer-User-Id", Long.MAX_VALUE))
+                .andExpect(status().isNotFound());
+    }
+}
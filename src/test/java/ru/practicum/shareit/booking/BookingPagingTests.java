@@ -0,0 +1,135 @@
+package ru.practicum.shareit.booking;
+
+import com.jayway.jsonpath.JsonPath;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import ru.practicum.shareit.Fixtures;
+import ru.practicum.shareit.util.KeysetCursor;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Booking lists are ordered newest start first. {@code size} alone returns the first page and
+ * a cursor, {@code from} with {@code size} keeps the old offset paging, and without {@code size}
+ * everything is returned.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class BookingPagingTests {
+
+    private static final String USER_HEADER = "X-Sharer-User-Id";
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private long ownerId;
+    private long bookerId;
+    private List<Long> newestFirst;
+    private List<Long> waitingNewestFirst;
+
+    @BeforeEach
+    void setUp() {
+        Fixtures fixtures = Fixtures.of(jdbcTemplate, "paging");
+        ownerId = fixtures.user("owner");
+        bookerId = fixtures.user("booker");
+        long itemId = fixtures.item("tent", ownerId);
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        newestFirst = new ArrayList<>();
+        waitingNewestFirst = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            String status = i % 2 == 0 ? "WAITING" : "APPROVED";
+            long bookingId = fixtures.booking(itemId, bookerId, start.plusDays(i), start.plusDays(i).plusHours(1),
+                    status);
+            newestFirst.addFirst(bookingId);
+            if (status.equals("WAITING")) {
+                waitingNewestFirst.addFirst(bookingId);
+            }
+        }
+    }
+
+    @Test
+    void sizeAloneReturnsTheFirstPageWithACursor() throws Exception {
+        MockHttpServletResponse response = perform(get("/bookings").param("size", "2"));
+
+        assertEquals(newestFirst.subList(0, 2), ids(response));
+        assertNotNull(response.getHeader(KeysetCursor.HEADER));
+    }
+
+    @Test
+    void cursorPagesReachEveryBookingOnce() throws Exception {
+        for (String path : List.of("/bookings", "/bookings/owner")) {
+            long userId = path.equals("/bookings") ? bookerId : ownerId;
+            assertEquals(newestFirst, followCursor(path, userId, "ALL", 2));
+            assertEquals(waitingNewestFirst, followCursor(path, userId, "WAITING", 2));
+        }
+    }
+
+    @Test
+    void offsetPagingStillWorks() throws Exception {
+        MockHttpServletResponse response = perform(get("/bookings").param("from", "2").param("size", "2"));
+
+        assertEquals(newestFirst.subList(2, 4), ids(response));
+        assertEquals(newestFirst.subList(2, 4), ids(mockMvc.perform(get("/bookings/owner")
+                        .header(USER_HEADER, ownerId)
+                        .param("from", "2")
+                        .param("size", "2"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse()));
+    }
+
+    @Test
+    void withoutSizeEverythingIsReturned() throws Exception {
+        MockHttpServletResponse response = perform(get("/bookings"));
+
+        assertEquals(newestFirst, ids(response));
+        assertNull(response.getHeader(KeysetCursor.HEADER));
+    }
+
+    private List<Long> followCursor(String path, long userId, String state, int size) throws Exception {
+        List<Long> seen = new ArrayList<>();
+        String cursor = null;
+        do {
+            MockHttpServletRequestBuilder request = get(path)
+                    .header(USER_HEADER, userId)
+                    .param("state", state)
+                    .param("size", String.valueOf(size));
+            if (cursor != null) {
+                request.param("cursor", cursor);
+            }
+            MockHttpServletResponse response = mockMvc.perform(request)
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse();
+            seen.addAll(ids(response));
+            cursor = response.getHeader(KeysetCursor.HEADER);
+        } while (cursor != null);
+        return seen;
+    }
+
+    private MockHttpServletResponse perform(MockHttpServletRequestBuilder request) throws Exception {
+        return mockMvc.perform(request.header(USER_HEADER, bookerId))
+                .andExpect(status().isOk())
+                .andReturn().getResponse();
+    }
+
+    private static List<Long> ids(MockHttpServletResponse response) throws Exception {
+        List<Number> ids = JsonPath.read(response.getContentAsString(), "$[*].id");
+        return ids.stream().map(Number::longValue).toList();
+    }
+}
@@ -0,0 +1,122 @@
+package ru.practicum.shareit.booking.audit;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.model.User;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BookingAuditLogTests {
+
+    private static final long FILE_SIZE = AuditLogFiles.HEADER_SIZE + 64L * BookingAuditEvent.SIZE;
+
+    @TempDir
+    private Path directory;
+
+    @Test
+    void fullBufferDropsEvents() {
+        AuditRingBuffer ringBuffer = new AuditRingBuffer(4);
+        for (int i = 0; i < 4; i++) {
+            assertTrue(offer(ringBuffer, i));
+        }
+        assertFalse(offer(ringBuffer, 4));
+        assertEquals(4, ringBuffer.size());
+    }
+
+    @Test
+    void replaysEventsAcrossRotatedFiles() throws IOException {
+        AuditRingBuffer ringBuffer = new AuditRingBuffer(1024);
+        try (ExecutorService producers = Executors.newFixedThreadPool(4)) {
+            for (int producer = 0; producer < 4; producer++) {
+                int first = producer * 100;
+                producers.submit(() -> {
+                    for (int i = first; i < first + 100; i++) {
+                        offer(ringBuffer, i);
+                    }
+                });
+            }
+        }
+        AuditLogWriter writer = new AuditLogWriter(directory, FILE_SIZE);
+        for (int i = 0; i < 300; i++) {
+            assertTrue(ringBuffer.pollTo(writer.buffer()));
+        }
+        writer.close();
+        writer = new AuditLogWriter(directory, FILE_SIZE);
+        while (ringBuffer.pollTo(writer.buffer())) {
+            // drain the rest into the reopened file
+        }
+        writer.close();
+
+        List<BookingAuditEvent> events = new ArrayList<>();
+        assertEquals(400, AuditLogReader.replay(directory, events::add));
+        assertEquals(7, AuditLogFiles.list(directory).size());
+        assertEquals(400, events.stream().mapToLong(BookingAuditEvent::bookingId).distinct().count());
+        BookingAuditEvent event = events.getFirst();
+        assertEquals(BookingAuditEvent.Type.STATUS_CHANGED, event.type());
+        assertEquals(BookingStatus.APPROVED, event.status());
+        assertEquals(event.bookingId() + 1, event.itemId());
+    }
+
+    @Test
+    void directoryIsLockedWhileAWriterIsOpen() throws IOException {
+        AuditLogWriter writer = new AuditLogWriter(directory, FILE_SIZE);
+
+        assertThrows(IOException.class, () -> new AuditLogWriter(directory, FILE_SIZE));
+        writer.close();
+        new AuditLogWriter(directory, FILE_SIZE).close();
+    }
+
+    @Test
+    void idleWriterWakesUpForANewEvent() throws Exception {
+        MeterRegistry meterRegistry = new SimpleMeterRegistry();
+        BookingAuditLog auditLog = new BookingAuditLog(new AuditProperties(true, directory.toString(),
+                DataSize.ofKilobytes(64), 16, Duration.ofMinutes(1)), meterRegistry);
+        auditLog.start();
+        Thread.sleep(50);
+
+        auditLog.bookingCreated(booking(), 3L);
+        long deadline = System.nanoTime() + Duration.ofSeconds(2).toNanos();
+        while (meterRegistry.counter("booking.audit.written").count() == 0 && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+
+        assertEquals(1, meterRegistry.counter("booking.audit.written").count());
+        auditLog.stop();
+        assertEquals(1, AuditLogReader.replay(directory, event -> { }));
+    }
+
+    private static Booking booking() {
+        Item item = new Item();
+        item.setId(2L);
+        User booker = new User();
+        booker.setId(3L);
+        Booking booking = new Booking();
+        booking.setId(1L);
+        booking.setItem(item);
+        booking.setBooker(booker);
+        booking.setStatus(BookingStatus.WAITING);
+        return booking;
+    }
+
+    private static boolean offer(AuditRingBuffer ringBuffer, long bookingId) {
+        return ringBuffer.offer(BookingAuditEvent.Type.STATUS_CHANGED, BookingStatus.APPROVED, 1L, bookingId,
+                bookingId + 1, bookingId + 2, bookingId + 3);
+    }
+}
@@ -0,0 +1,163 @@
+package ru.practicum.shareit.booking.concurrency;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.Fixtures;
+import ru.practicum.shareit.booking.dto.RequestBookingDto;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.erorr.exception.ValidationException;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Hammers booking writes from several threads. Conflicting writes to one item must leave
+ * exactly one winner, and writes spread over distinct items must go clearly faster than writes
+ * that all queue on the same item lock.
+ */
+@Slf4j
+@SpringBootTest
+class BookingConcurrencyTests {
+
+    private static final int THREADS = 8;
+
+    @Autowired
+    private BookingService bookingService;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private long ownerId;
+    private List<Long> bookerIds;
+    private List<Long> itemIds;
+
+    @BeforeEach
+    void setUp() {
+        Fixtures fixtures = Fixtures.of(jdbcTemplate, "race");
+        ownerId = fixtures.user("owner");
+        bookerIds = new ArrayList<>();
+        itemIds = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            bookerIds.add(fixtures.user("booker" + i));
+            itemIds.add(fixtures.item("item" + i, ownerId));
+        }
+    }
+
+    @Test
+    void concurrentApprovalsHaveOneWinner() throws Exception {
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        for (int round = 0; round < 20; round++) {
+            long bookingId = bookingService.addBooking(bookerIds.get(round % THREADS), request(itemIds.getFirst(),
+                    start.plusDays(round * 2L))).getId();
+            List<Boolean> results = race(THREADS, thread -> {
+                try {
+                    bookingService.handleBookingApproval(ownerId, bookingId, true);
+                    return true;
+                } catch (ValidationException e) {
+                    return false;
+                }
+            });
+            assertEquals(1, results.stream().filter(Boolean::booleanValue).count());
+            assertEquals("APPROVED", jdbcTemplate.queryForObject(
+                    "select status from booking where booking_id = ?", String.class, bookingId));
+            assertEquals(1L, jdbcTemplate.queryForObject(
+                    "select version from booking where booking_id = ?", Long.class, bookingId));
+        }
+    }
+
+    @Test
+    void concurrentBookingsOfOneSlotHaveOneWinner() throws Exception {
+        LocalDateTime start = LocalDateTime.now().plusDays(3);
+        List<Boolean> results = race(THREADS, thread -> {
+            try {
+                bookingService.addBooking(bookerIds.get(thread), request(itemIds.getFirst(), start));
+                return true;
+            } catch (ValidationException e) {
+                return false;
+            }
+        });
+        assertEquals(1, results.stream().filter(Boolean::booleanValue).count());
+    }
+
+    @Test
+    void throughputOnOneAndOnDistinctItems() throws Exception {
+        int operations = 40;
+        LocalDateTime start = LocalDateTime.now().plusYears(1);
+        // Warms up first, so the single-item run does not pay for class loading and compilation.
+        throughput(operations / 4, itemIds::get, start.plusYears(2));
+        double oneItem = throughput(operations, thread -> itemIds.getFirst(), start);
+        double distinctItems = throughput(operations, itemIds::get, start.plusYears(1));
+        log.info("Booking add+approve with {} threads: {} ops/s on one item, {} ops/s on {} items",
+                THREADS, Math.round(oneItem), Math.round(distinctItems), THREADS);
+        assertTrue(distinctItems > oneItem * 1.5, () -> "Distinct items ran " + Math.round(distinctItems)
+                + " ops/s against " + Math.round(oneItem) + " ops/s on one item");
+    }
+
+    private double throughput(int operationsPerThread, ThreadItem item, LocalDateTime start) throws Exception {
+        long started = System.nanoTime();
+        List<Boolean> results = race(THREADS, thread -> {
+            long itemId = item.of(thread);
+            for (int i = 0; i < operationsPerThread; i++) {
+                LocalDateTime slot = start.plusHours((long) (i * THREADS + thread) * 2);
+                Booking booking = bookingService.addBooking(bookerIds.get(thread), request(itemId, slot));
+                bookingService.handleBookingApproval(ownerId, booking.getId(), true);
+            }
+            return true;
+        });
+        double seconds = (System.nanoTime() - started) / 1e9;
+        assertEquals(THREADS, results.size());
+        return THREADS * operationsPerThread / seconds;
+    }
+
+    private List<Boolean> race(int threads, ThreadTask task) throws Exception {
+        CountDownLatch ready = new CountDownLatch(threads);
+        CountDownLatch go = new CountDownLatch(1);
+        List<Future<Boolean>> futures = new ArrayList<>();
+        try (ExecutorService executor = Executors.newFixedThreadPool(threads)) {
+            for (int thread = 0; thread < threads; thread++) {
+                int index = thread;
+                futures.add(executor.submit((Callable<Boolean>) () -> {
+                    ready.countDown();
+                    go.await();
+                    return task.run(index);
+                }));
+            }
+            ready.await();
+            go.countDown();
+        }
+        List<Boolean> results = new ArrayList<>();
+        for (Future<Boolean> future : futures) {
+            results.add(future.get());
+        }
+        return results;
+    }
+
+    private static RequestBookingDto request(long itemId, LocalDateTime start) {
+        return RequestBookingDto.builder()
+                .itemId(itemId)
+                .start(start)
+                .end(start.plusHours(1))
+                .build();
+    }
+
+    private interface ThreadTask {
+        boolean run(int thread) throws Exception;
+    }
+
+    private interface ThreadItem {
+        long of(int thread);
+    }
+}
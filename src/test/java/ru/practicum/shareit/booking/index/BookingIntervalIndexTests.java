@@ -0,0 +1,91 @@
+package ru.practicum.shareit.booking.index;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.Fixtures;
+import ru.practicum.shareit.booking.dto.RequestBookingDto;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.erorr.exception.ValidationException;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest
+class BookingIntervalIndexTests {
+
+    @Autowired
+    private BookingService bookingService;
+    @Autowired
+    private BookingIntervalIndex bookingIntervalIndex;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Fixtures fixtures;
+    private long ownerId;
+    private long bookerId;
+    private long itemId;
+    private LocalDateTime day;
+
+    @BeforeEach
+    void setUp() {
+        fixtures = Fixtures.of(jdbcTemplate, "interval");
+        ownerId = fixtures.user("owner");
+        bookerId = fixtures.user("booker");
+        itemId = fixtures.item("canoe", ownerId);
+        day = LocalDateTime.now().plusDays(5).truncatedTo(ChronoUnit.DAYS);
+    }
+
+    @Test
+    void overlappingWindowsAreRejectedAndAdjacentOnesAccepted() {
+        book(day.plusHours(10), day.plusHours(12));
+
+        assertThrows(ValidationException.class, () -> book(day.plusHours(11), day.plusHours(13)));
+        assertThrows(ValidationException.class, () -> book(day.plusHours(9), day.plusHours(14)));
+        assertDoesNotThrow(() -> book(day.plusHours(12), day.plusHours(13)));
+        assertDoesNotThrow(() -> book(day.plusHours(8), day.plusHours(10)));
+    }
+
+    @Test
+    void rejectionReleasesTheWindow() {
+        Booking booking = book(day.plusHours(10), day.plusHours(12));
+        assertThrows(ValidationException.class, () -> book(day.plusHours(10), day.plusHours(12)));
+
+        bookingService.handleBookingApproval(ownerId, booking.getId(), false);
+
+        assertDoesNotThrow(() -> book(day.plusHours(10), day.plusHours(12)));
+    }
+
+    @Test
+    void longBookingBlocksWindowsAcrossItsWholeLength() {
+        book(day, day.plusYears(2));
+
+        assertThrows(ValidationException.class, () -> book(day.plusYears(1), day.plusYears(1).plusHours(1)));
+        assertDoesNotThrow(() -> book(day.plusYears(2), day.plusYears(2).plusHours(1)));
+    }
+
+    @Test
+    void rebuildLoadsStoredBookings() {
+        fixtures.booking(itemId, bookerId, day.plusHours(10), day.plusHours(12), "APPROVED");
+        fixtures.booking(itemId, bookerId, day.plusHours(14), day.plusHours(16), "REJECTED");
+
+        bookingIntervalIndex.rebuild();
+
+        assertThrows(ValidationException.class, () -> book(day.plusHours(11), day.plusHours(12)));
+        assertDoesNotThrow(() -> book(day.plusHours(14), day.plusHours(16)));
+    }
+
+    private Booking book(LocalDateTime start, LocalDateTime end) {
+        return bookingService.addBooking(bookerId, RequestBookingDto.builder()
+                .itemId(itemId)
+                .start(start)
+                .end(end)
+                .build());
+    }
+}
@@ -0,0 +1,189 @@
+package ru.practicum.shareit.booking.stats;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.Fixtures;
+import ru.practicum.shareit.booking.dto.BookingStatsDto;
+import ru.practicum.shareit.booking.dto.RequestBookingDto;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.lang.reflect.Proxy;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest
+class OwnerBookingStatsTests {
+
+    @Autowired
+    private BookingService bookingService;
+    @Autowired
+    private OwnerBookingStats ownerBookingStats;
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private MovableClock clock;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private long ownerId;
+    private long bookerId;
+    private long itemId;
+    private long waitingBookingId;
+
+    @BeforeEach
+    void setUp() {
+        clock.reset();
+        Fixtures fixtures = Fixtures.of(jdbcTemplate, "stats");
+        ownerId = fixtures.user("owner");
+        bookerId = fixtures.user("booker");
+        itemId = fixtures.item("tent", ownerId);
+        LocalDateTime now = LocalDateTime.now();
+        fixtures.booking(itemId, bookerId, now.minusDays(5), now.minusDays(4), "APPROVED");
+        fixtures.booking(itemId, bookerId, now.minusHours(1), now.plusHours(1), "APPROVED");
+        waitingBookingId = fixtures.booking(itemId, bookerId, now.plusDays(1), now.plusDays(2), "WAITING");
+        fixtures.booking(itemId, bookerId, now.plusDays(3), now.plusDays(4), "REJECTED");
+    }
+
+    @Test
+    void countsFollowBookingChanges() {
+        assertEquals(stats(4, 1, 1, 2, 1, 1), bookingService.getOwnerBookingStats(ownerId, false));
+
+        bookingService.handleBookingApproval(ownerId, waitingBookingId, true);
+        LocalDateTime start = LocalDateTime.now().plusDays(10);
+        bookingService.addBooking(bookerId, RequestBookingDto.builder()
+                .itemId(itemId)
+                .start(start)
+                .end(start.plusDays(1))
+                .build());
+        assertEquals(stats(5, 1, 1, 3, 1, 1), bookingService.getOwnerBookingStats(ownerId, false));
+
+        clock.advance(Duration.ofHours(2));
+        ownerBookingStats.sweep();
+        BookingStatsDto incremental = bookingService.getOwnerBookingStats(ownerId, false);
+        assertEquals(stats(5, 0, 2, 3, 1, 1), incremental);
+        assertEquals(incremental, bookingService.getOwnerBookingStats(ownerId, true));
+    }
+
+    @Test
+    void bookingCommittedDuringALoadIsCounted() {
+        AtomicReference<OwnerBookingStats> stats = new AtomicReference<>();
+        long[] stored = {1};
+        BookingRepository repository = (BookingRepository) Proxy.newProxyInstance(
+                BookingRepository.class.getClassLoader(), new Class<?>[]{BookingRepository.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "countOwnerBookingsByStatus" -> {
+                        List<OwnerStatusCount> counts = List.of(
+                                new OwnerStatusCount(1L, BookingStatus.WAITING, stored[0], 0L, stored[0]));
+                        if (stored[0] == 1) {
+                            stored[0]++;
+                            stats.get().bookingAdded(booking(2L));
+                        }
+                        yield counts;
+                    }
+                    case "findOwnerBookingPeriods" -> List.of();
+                    default -> throw new UnsupportedOperationException(method.getName());
+                });
+        stats.set(new OwnerBookingStats(repository, new OwnerBookingStatsProperties(100, Duration.ofHours(1)),
+                Clock.systemDefaultZone(), new SimpleMeterRegistry()));
+
+        assertEquals(1, stats.get().get(1L).getAll());
+        assertEquals(2, stats.get().get(1L).getAll());
+        assertEquals(2, stats.get().get(1L).getAll());
+    }
+
+    @Test
+    void deletingABookerDropsTheCountersOfTheOwnersTheyBooked() {
+        assertEquals(4, bookingService.getOwnerBookingStats(ownerId, false).getAll());
+
+        userService.deleteUser(bookerId);
+
+        assertEquals(stats(0, 0, 0, 0, 0, 0), bookingService.getOwnerBookingStats(ownerId, false));
+    }
+
+    private static Booking booking(long id) {
+        User owner = new User();
+        owner.setId(1L);
+        Item item = new Item();
+        item.setOwner(owner);
+        Booking booking = new Booking();
+        booking.setId(id);
+        booking.setItem(item);
+        booking.setStart(LocalDateTime.now().plusDays(1));
+        booking.setEnd(LocalDateTime.now().plusDays(2));
+        booking.setStatus(BookingStatus.WAITING);
+        return booking;
+    }
+
+    private static BookingStatsDto stats(long all, long current, long past, long future, long waiting,
+                                         long rejected) {
+        return BookingStatsDto.builder()
+                .all(all)
+                .current(current)
+                .past(past)
+                .future(future)
+                .waiting(waiting)
+                .rejected(rejected)
+                .build();
+    }
+
+    @TestConfiguration
+    static class ClockConfig {
+
+        @Bean
+        @Primary
+        MovableClock movableClock() {
+            return new MovableClock();
+        }
+    }
+
+    /**
+     * The system clock moved forward by a settable offset, so bookings roll over without waiting.
+     */
+    static class MovableClock extends Clock {
+
+        private volatile Duration offset = Duration.ZERO;
+
+        void advance(Duration duration) {
+            offset = offset.plus(duration);
+        }
+
+        void reset() {
+            offset = Duration.ZERO;
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneId.systemDefault();
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Instant instant() {
+            return Instant.now().plus(offset);
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package ru.practicum.shareit.config.cache;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.Fixtures;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemWithBookingsDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+class EntityCacheTests {
+
+    @Autowired
+    private ItemService itemService;
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Fixtures fixtures;
+    private long ownerId;
+    private long itemId;
+
+    @BeforeEach
+    void setUp() {
+        fixtures = Fixtures.of(jdbcTemplate, "cache");
+        ownerId = fixtures.user("owner");
+        itemId = fixtures.item("drill", ownerId);
+    }
+
+    @Test
+    void ownerItemListIsCachedUntilItemChanges() {
+        Statistics statistics = statistics();
+        itemService.getAllOwnerItems(ownerId);
+        long hits = statistics.getQueryRegionStatistics(EntityCacheConfig.OWNER_ITEMS_REGION).getHitCount();
+
+        itemService.getAllOwnerItems(ownerId);
+        assertEquals(hits + 1, statistics.getQueryRegionStatistics(EntityCacheConfig.OWNER_ITEMS_REGION)
+                .getHitCount());
+
+        itemService.updateItem(ownerId, itemId, ItemDto.builder().name(fixtures.name("hammer")).build(), null);
+        List<ItemWithBookingsDto> items = itemService.getAllOwnerItems(ownerId);
+        assertEquals(fixtures.name("hammer"), items.getFirst().getName());
+    }
+
+    @Test
+    void deletedOwnerItemsAreEvicted() {
+        itemService.getAllOwnerItems(ownerId);
+        assertTrue(entityManagerFactory.getCache().contains(Item.class, itemId));
+
+        userService.deleteUser(ownerId);
+
+        assertTrue(itemRepository.findById(itemId).isEmpty());
+        assertTrue(itemService.getAllOwnerItems(ownerId).isEmpty());
+    }
+
+    private Statistics statistics() {
+        return entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+}
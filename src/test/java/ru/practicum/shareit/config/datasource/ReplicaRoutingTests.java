@@ -0,0 +1,162 @@
+package ru.practicum.shareit.config.datasource;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.Fixtures;
+import ru.practicum.shareit.user.service.UserService;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Runs against two H2 databases: the usual primary and a replica that has the schema but none of
+ * the primary's rows, so every read shows which side it was routed to. Rows written to the
+ * replica by hand stand in for a replica that has not caught up yet.
+ */
+@SpringBootTest(properties = {
+    "shareit.datasource.replicas[0].url=" + ReplicaRoutingTests.REPLICA_URL,
+    "shareit.datasource.replicas[0].username=test",
+    "shareit.datasource.replicas[0].password=test",
+    "shareit.datasource.max-lag=1s",
+    "shareit.datasource.lag-query=select lag_seconds from replica_lag",
+    "shareit.datasource.health-check-interval=PT1H"
+})
+@AutoConfigureMockMvc
+class ReplicaRoutingTests {
+
+    static final String REPLICA_URL = "jdbc:h2:mem:shareit-replica;DB_CLOSE_DELAY=-1";
+    private static final String USER_HEADER = "X-Sharer-User-Id";
+    private static final JdbcTemplate REPLICA = new JdbcTemplate(
+            new DriverManagerDataSource(REPLICA_URL, "test", "test"));
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    @Autowired
+    private ReplicaRoutingDataSource routingDataSource;
+    @Autowired
+    private UserService userService;
+
+    private Fixtures fixtures;
+    private long ownerId;
+    private long itemId;
+
+    @BeforeAll
+    static void migrateReplica() {
+        Flyway.configure()
+                .dataSource(REPLICA_URL, "test", "test")
+                .locations("classpath:db/migration/common", "classpath:db/migration/h2")
+                .load()
+                .migrate();
+        REPLICA.execute("create table if not exists replica_lag (lag_seconds int)");
+    }
+
+    @BeforeEach
+    void setUp() {
+        REPLICA.update("delete from replica_lag");
+        REPLICA.update("insert into replica_lag values (0)");
+        routingDataSource.checkHealth();
+        fixtures = Fixtures.of(jdbcTemplate, "replica");
+        ownerId = fixtures.user("owner");
+        itemId = fixtures.item("drill", ownerId);
+    }
+
+    @AfterEach
+    void tearDown() {
+        REPLICA.update("delete from replica_lag");
+        REPLICA.update("insert into replica_lag values (0)");
+        routingDataSource.checkHealth();
+    }
+
+    @Test
+    void readOnlyTransactionsUseReplica() {
+        fixtures.on(REPLICA).user("replica-only");
+
+        assertEquals(1, countUsers(true, fixtures.name("replica-only")));
+        assertEquals(0, countUsers(true, fixtures.name("owner")));
+        assertEquals(1, countUsers(false, fixtures.name("owner")));
+    }
+
+    @Test
+    void writerReadsOwnWrites() throws Exception {
+        long otherUserId = ownerId + 1000;
+        mockMvc.perform(get("/items/{itemId}", itemId).header(USER_HEADER, ownerId))
+                .andExpect(status().isNotFound());
+
+        mockMvc.perform(patch("/items/{itemId}", itemId)
+                        .header(USER_HEADER, ownerId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"" + fixtures.name("hammer") + "\"}"))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/items/{itemId}", itemId).header(USER_HEADER, ownerId))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/items/{itemId}", itemId).header(USER_HEADER, otherUserId))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void otherUserReadAfterWriteDoesNotCacheReplicaRow() throws Exception {
+        REPLICA.update("insert into users (user_id, name, email) values (?, ?, ?)", ownerId,
+                fixtures.name("owner"), fixtures.name("owner") + "@example.com");
+
+        mockMvc.perform(patch("/users/{userId}", ownerId)
+                        .header(USER_HEADER, ownerId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"" + fixtures.name("renamed") + "\"}"))
+                .andExpect(status().isOk());
+
+        assertEquals(fixtures.name("renamed"), userService.getUser(ownerId).getName());
+        REPLICA.update("update users set name = ? where user_id = ?", fixtures.name("renamed"), ownerId);
+        assertEquals(fixtures.name("renamed"), userService.getUser(ownerId).getName());
+    }
+
+    @Test
+    void userReadFromReplicaIsNotCached() {
+        REPLICA.update("insert into users (user_id, name, email) values (?, ?, ?)", ownerId,
+                fixtures.name("stale"), fixtures.name("stale") + "@example.com");
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setReadOnly(true);
+
+        String readOnReplica = transaction.execute(status -> {
+            countUsers(true, fixtures.name("stale"));
+            return userService.getUser(ownerId).getName();
+        });
+
+        assertEquals(fixtures.name("stale"), readOnReplica);
+        assertEquals(fixtures.name("owner"), userService.getUser(ownerId).getName());
+    }
+
+    @Test
+    void laggingReplicaFallsBackToPrimary() {
+        REPLICA.update("update replica_lag set lag_seconds = 5");
+        routingDataSource.checkHealth();
+
+        assertEquals(0, routingDataSource.healthyReplicas());
+        assertEquals(1, countUsers(true, fixtures.name("owner")));
+    }
+
+    private long countUsers(boolean readOnly, String name) {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setReadOnly(readOnly);
+        return transaction.execute(status -> jdbcTemplate.queryForObject(
+                "select count(*) from users where email = ?", Long.class, name + "@example.com"));
+    }
+}
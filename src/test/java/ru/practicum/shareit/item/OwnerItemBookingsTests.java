@@ -0,0 +1,48 @@
+package ru.practicum.shareit.item;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.Fixtures;
+import ru.practicum.shareit.item.dto.ItemWithBookingsDto;
+import ru.practicum.shareit.item.service.ItemService;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+@SpringBootTest
+class OwnerItemBookingsTests {
+
+    @Autowired
+    private ItemService itemService;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void ownerItemsShowLastEndedAndFirstUpcomingBooking() {
+        Fixtures fixtures = Fixtures.of(jdbcTemplate, "owner-items");
+        long ownerId = fixtures.user("owner");
+        long bookerId = fixtures.user("booker");
+        long itemId = fixtures.item("drill", ownerId);
+        fixtures.item("saw", ownerId);
+        LocalDateTime now = LocalDateTime.now();
+        fixtures.booking(itemId, bookerId, now.minusDays(6), now.minusDays(5), "APPROVED");
+        long last = fixtures.booking(itemId, bookerId, now.minusDays(3), now.minusDays(2), "APPROVED");
+        fixtures.booking(itemId, bookerId, now.minusDays(2), now.minusDays(1), "REJECTED");
+        fixtures.booking(itemId, bookerId, now.minusHours(1), now.plusHours(1), "APPROVED");
+        fixtures.booking(itemId, bookerId, now.plusDays(1), now.plusDays(2), "REJECTED");
+        long next = fixtures.booking(itemId, bookerId, now.plusDays(2), now.plusDays(3), "WAITING");
+        fixtures.booking(itemId, bookerId, now.plusDays(4), now.plusDays(5), "APPROVED");
+
+        List<ItemWithBookingsDto> items = itemService.getAllOwnerItems(ownerId);
+
+        assertEquals(last, items.getFirst().getLastBooking().getId());
+        assertEquals(next, items.getFirst().getNextBooking().getId());
+        assertNull(items.get(1).getLastBooking());
+        assertNull(items.get(1).getNextBooking());
+    }
+}
@@ -0,0 +1,120 @@
+package ru.practicum.shareit.item.availability;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.Fixtures;
+import ru.practicum.shareit.booking.dto.RequestBookingDto;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
+import ru.practicum.shareit.item.dto.TimeSlot;
+import ru.practicum.shareit.item.service.ItemService;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = "shareit.availability.max-slots=3")
+class AvailabilityCalendarTests {
+
+    @Autowired
+    private ItemService itemService;
+    @Autowired
+    private BookingService bookingService;
+    @Autowired
+    private AvailabilityCalendar availabilityCalendar;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Fixtures fixtures;
+    private long ownerId;
+    private long bookerId;
+    private long itemId;
+    private LocalDateTime day;
+
+    @BeforeEach
+    void setUp() {
+        fixtures = Fixtures.of(jdbcTemplate, "calendar");
+        ownerId = fixtures.user("owner");
+        bookerId = fixtures.user("booker");
+        itemId = fixtures.item("kayak", ownerId);
+        day = LocalDateTime.now().plusDays(10).truncatedTo(ChronoUnit.DAYS);
+        insertBooking(day.plusHours(2), day.plusHours(4), "APPROVED");
+        insertBooking(day.plusHours(3), day.plusHours(6), "WAITING");
+        insertBooking(day.plusHours(8), day.plusHours(9), "REJECTED");
+        availabilityCalendar.loadLongestBookings();
+    }
+
+    @Test
+    void freeSlotsSkipOccupiedIntervals() {
+        ItemAvailabilityDto availability = itemService.getAvailability(itemId, day, day.plusDays(1));
+
+        assertEquals(List.of(new TimeSlot(day, day.plusHours(2)), new TimeSlot(day.plusHours(6), day.plusDays(1))),
+                availability.free());
+        assertEquals(false, availability.truncated());
+    }
+
+    @Test
+    void bookingStartedBeforeTheRangeOccupiesItsStart() {
+        insertBooking(day.minusDays(2), day.plusHours(1), "APPROVED");
+        availabilityCalendar.loadLongestBookings();
+
+        assertEquals(List.of(new TimeSlot(day.plusHours(1), day.plusHours(2)),
+                        new TimeSlot(day.plusHours(6), day.plusDays(1))),
+                itemService.getAvailability(itemId, day, day.plusDays(1)).free());
+    }
+
+    @Test
+    void longBookingOccupiesRangesFarFromItsStartUntilRejected() {
+        Booking booking = bookingService.addBooking(bookerId, RequestBookingDto.builder()
+                .itemId(itemId)
+                .start(day.plusDays(2))
+                .end(day.plusDays(402))
+                .build());
+        LocalDateTime from = day.plusDays(400);
+
+        assertEquals(List.of(), itemService.getAvailability(itemId, from, from.plusDays(1)).free());
+
+        bookingService.handleBookingApproval(ownerId, booking.getId(), false);
+
+        assertEquals(List.of(new TimeSlot(from, from.plusDays(1))),
+                itemService.getAvailability(itemId, from, from.plusDays(1)).free());
+    }
+
+    @Test
+    void newBookingInvalidatesCachedSlots() {
+        itemService.getAvailability(itemId, day, day.plusDays(1));
+
+        bookingService.addBooking(bookerId, RequestBookingDto.builder()
+                .itemId(itemId)
+                .start(day.plusHours(10))
+                .end(day.plusHours(12))
+                .build());
+
+        assertEquals(List.of(new TimeSlot(day, day.plusHours(2)), new TimeSlot(day.plusHours(6), day.plusHours(10)),
+                        new TimeSlot(day.plusHours(12), day.plusDays(1))),
+                itemService.getAvailability(itemId, day, day.plusDays(1)).free());
+    }
+
+    @Test
+    void longRangesAreCutAtTheSlotLimit() {
+        for (int i = 1; i <= 4; i++) {
+            insertBooking(day.plusDays(i), day.plusDays(i).plusHours(1), "APPROVED");
+        }
+
+        ItemAvailabilityDto availability = itemService.getAvailability(itemId, day, day.plusYears(1));
+
+        assertEquals(3, availability.free().size());
+        assertTrue(availability.truncated());
+    }
+
+    private void insertBooking(LocalDateTime start, LocalDateTime end, String status) {
+        fixtures.booking(itemId, bookerId, start, end, status);
+    }
+}
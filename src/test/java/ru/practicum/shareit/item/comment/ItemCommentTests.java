@@ -0,0 +1,103 @@
+package ru.practicum.shareit.item.comment;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.Fixtures;
+import ru.practicum.shareit.erorr.exception.EntityNotFoundException;
+import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemWithBookingsDto;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.service.UserService;
+import ru.practicum.shareit.util.KeysetCursor;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest(properties = "shareit.comments.newest=2")
+class ItemCommentTests {
+
+    @Autowired
+    private ItemService itemService;
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private long ownerId;
+    private long authorId;
+    private long itemId;
+
+    @BeforeEach
+    void setUp() {
+        Fixtures fixtures = Fixtures.of(jdbcTemplate, "comment");
+        ownerId = fixtures.user("owner");
+        authorId = fixtures.user("author");
+        itemId = fixtures.item("drill", ownerId);
+        LocalDateTime now = LocalDateTime.now();
+        fixtures.booking(itemId, authorId, now.minusDays(3), now.minusDays(2), "APPROVED");
+    }
+
+    @Test
+    void itemReadsEmbedNewestCommentsAndStoredCount() {
+        assertEquals(0, itemService.getAllOwnerItems(ownerId).getFirst().getCommentCount());
+        List<Long> added = addComments(3);
+
+        ItemWithBookingsDto item = itemService.getItem(authorId, itemId);
+        assertEquals(3, item.getCommentCount());
+        assertEquals(List.of(added.get(2), added.get(1)), item.getComments().stream().map(CommentDto::getId).toList());
+
+        ItemWithBookingsDto owned = itemService.getAllOwnerItems(ownerId).getFirst();
+        assertEquals(3, owned.getCommentCount());
+        assertEquals(2, owned.getComments().size());
+    }
+
+    @Test
+    void deletingTheAuthorTakesTheirCommentsOffTheCount() {
+        addComments(2);
+        assertEquals(2, itemService.getAllOwnerItems(ownerId).getFirst().getCommentCount());
+
+        userService.deleteUser(authorId);
+
+        assertEquals(0, itemService.getAllOwnerItems(ownerId).getFirst().getCommentCount());
+        assertEquals(0, itemService.getItem(ownerId, itemId).getCommentCount());
+    }
+
+    @Test
+    void commentsArePagedByKeyset() {
+        List<Long> added = addComments(5).reversed();
+
+        List<Long> seen = new ArrayList<>();
+        KeysetCursor cursor = null;
+        List<CommentDto> page;
+        do {
+            page = itemService.getItemComments(itemId, 2, cursor);
+            page.forEach(comment -> seen.add(comment.getId()));
+            if (!page.isEmpty()) {
+                cursor = new KeysetCursor(page.getLast().getCreated(), page.getLast().getId());
+            }
+        } while (page.size() == 2);
+
+        assertEquals(added, seen);
+    }
+
+    @Test
+    void commentsOfMissingItemAreNotFound() {
+        assertThrows(EntityNotFoundException.class, () -> itemService.getItemComments(Long.MAX_VALUE, 2, null));
+    }
+
+    private List<Long> addComments(int count) {
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            ids.add(itemService.addComment(authorId, itemId, CommentDto.builder().text("Comment " + i).build())
+                    .getId());
+        }
+        return ids;
+    }
+}
@@ -0,0 +1,77 @@
+package ru.practicum.shareit.item.search;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.Fixtures;
+import ru.practicum.shareit.erorr.exception.ValidationException;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.service.ItemService;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+class ItemSearchIndexTests {
+
+    @Autowired
+    private ItemSearchIndex itemSearchIndex;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private ItemService itemService;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Fixtures fixtures;
+    private long ownerId;
+
+    @BeforeEach
+    void setUp() {
+        fixtures = Fixtures.of(jdbcTemplate, "index");
+        ownerId = fixtures.user("owner");
+    }
+
+    @Test
+    void wildcardCharactersMatchLiterallyInBothPaths() {
+        long percent = addItem("cotton 100% " + fixtures.name("x_y"));
+        addItem("cotton 1000 " + fixtures.name("xzy"));
+
+        for (String text : List.of("100%", fixtures.name("x_y"))) {
+            assertEquals(List.of(percent), ids(itemSearchIndex.search(text, 0, 10, null).items()));
+            assertEquals(List.of(percent), ids(itemRepository.searchItemsWithTextFilter(text)));
+        }
+    }
+
+    @Test
+    void rebuildDoesNotRestoreItemsChangedWhileLoading() {
+        long itemId = addItem(fixtures.name("kettle"));
+
+        itemSearchIndex.startBuild();
+        List<IndexedItem> snapshot = itemRepository.findAllAvailableForIndex();
+        itemService.updateItem(ownerId, itemId, ItemDto.builder().available(false).build(), null);
+        itemSearchIndex.build(snapshot);
+
+        assertTrue(itemSearchIndex.search(fixtures.name("kettle"), 0, 10, null).items().isEmpty());
+    }
+
+    @Test
+    void offsetsBeyondTheLimitAreRejected() {
+        assertThrows(ValidationException.class, () -> itemService.getItemsByText("kettle", Integer.MAX_VALUE, 10,
+                null));
+    }
+
+    private long addItem(String name) {
+        return itemService.addItem(ownerId, new ItemDto(null, name, "An item", true, (String) null)).getId();
+    }
+
+    private static List<Long> ids(List<ItemDto> items) {
+        return items.stream().map(ItemDto::getId).toList();
+    }
+}
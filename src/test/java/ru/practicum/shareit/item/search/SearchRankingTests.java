@@ -0,0 +1,53 @@
+package ru.practicum.shareit.item.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SearchRankingTests {
+
+    @Test
+    void nameMatchesOutrankDescriptionMatches() {
+        int nameToken = SearchRanking.score("cordless drill", "", "drill");
+        int nameSubstring = SearchRanking.score("drills", "", "drill");
+        int descriptionToken = SearchRanking.score("kit", "with a drill and a saw", "drill");
+        int descriptionSubstring = SearchRanking.score("kit", "drilling kit", "drill");
+
+        assertTrue(nameToken > nameSubstring);
+        assertTrue(nameSubstring > descriptionToken);
+        assertTrue(descriptionToken > descriptionSubstring);
+        assertEquals(0, SearchRanking.score("saw", "a saw", "drill"));
+    }
+
+    @Test
+    void cursorPagesMatchAFullSort() {
+        Random random = new Random(42);
+        List<SearchRanking.Ranked<Long>> all = new ArrayList<>();
+        for (long id = 1; id <= 1000; id++) {
+            all.add(new SearchRanking.Ranked<>(1 + random.nextInt(10), id, id));
+        }
+        List<Long> expected = all.stream()
+                .sorted(Comparator.<SearchRanking.Ranked<Long>>comparingInt(SearchRanking.Ranked::score).reversed()
+                        .thenComparingLong(SearchRanking.Ranked::id))
+                .map(SearchRanking.Ranked::value)
+                .toList();
+
+        List<Long> paged = new ArrayList<>();
+        SearchCursor cursor = null;
+        do {
+            SearchRanking.TopK<Long> topK = new SearchRanking.TopK<>(64, cursor);
+            all.forEach(ranked -> topK.offer(ranked.score(), ranked.id(), ranked.value()));
+            List<SearchRanking.Ranked<Long>> page = topK.bestFirst();
+            page.forEach(ranked -> paged.add(ranked.value()));
+            cursor = page.isEmpty() ? null : new SearchCursor(page.getLast().score(), page.getLast().id());
+        } while (cursor != null);
+
+        assertEquals(expected, paged);
+    }
+}
@@ -0,0 +1,56 @@
+package ru.practicum.shareit.request;
+
+import org.flywaydb.core.Flyway;
+import org.flywaydb.core.api.configuration.FluentConfiguration;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Runs the request migration over a database that already had a requests table and items
+ * pointing both at its rows and at ids that never existed.
+ */
+class ItemRequestMigrationTests {
+
+    private static final String URL = "jdbc:h2:mem:shareit-request-migration;DB_CLOSE_DELAY=-1";
+    private static final String[] LOCATIONS = {"classpath:db/migration/common", "classpath:db/migration/h2"};
+
+    @Test
+    void onlyLinksToMissingRequestsAreCleared() {
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(new DriverManagerDataSource(URL, "test", "test"));
+        migrate("4");
+        jdbcTemplate.execute("""
+                create table requests (
+                    request_id bigint generated by default as identity primary key,
+                    description varchar(1000) not null,
+                    requestor_id bigint references users (user_id) on delete cascade,
+                    created_at timestamp not null,
+                    version bigint default 0 not null)
+                """);
+        jdbcTemplate.update("insert into users (user_id, name, email) values (1, 'owner', 'owner@example.com')");
+        jdbcTemplate.update("insert into requests (request_id, description, requestor_id, created_at) "
+                + "values (10, 'a ladder', 1, current_timestamp)");
+        jdbcTemplate.update("insert into items (item_id, name, description, available, owner_id, request) "
+                + "values (1, 'ladder', 'tall', true, 1, 10), (2, 'drill', 'loud', true, 1, 99), "
+                + "(3, 'saw', 'sharp', true, 1, null)");
+
+        migrate(null);
+
+        assertEquals(Arrays.asList(10L, null, null), jdbcTemplate.queryForList(
+                "select request from items order by item_id", Long.class));
+    }
+
+    private static void migrate(String target) {
+        FluentConfiguration configuration = Flyway.configure()
+                .dataSource(URL, "test", "test")
+                .locations(LOCATIONS);
+        if (target != null) {
+            configuration.target(target);
+        }
+        configuration.load().migrate();
+    }
+}
@@ -0,0 +1,104 @@
+package ru.practicum.shareit.request;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.Fixtures;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.request.dto.ItemAnswerDto;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.request.service.ItemRequestService;
+import ru.practicum.shareit.util.KeysetCursor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+class ItemRequestTests {
+
+    @Autowired
+    private ItemRequestService itemRequestService;
+    @Autowired
+    private ItemService itemService;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Fixtures fixtures;
+    private long requestorId;
+    private long ownerId;
+
+    @BeforeEach
+    void setUp() {
+        fixtures = Fixtures.of(jdbcTemplate, "request");
+        requestorId = fixtures.user("requestor");
+        ownerId = fixtures.user("owner");
+    }
+
+    @Test
+    void requestsComeWithTheirAnswers() {
+        ItemRequestDto drill = itemRequestService.addRequest(requestorId, request(fixtures.name("drill")));
+        ItemRequestDto ladder = itemRequestService.addRequest(requestorId, request(fixtures.name("ladder")));
+        addAnswer(drill, "drill one");
+        addAnswer(drill, "drill two");
+
+        List<ItemRequestDto> own = itemRequestService.getOwnRequests(requestorId);
+
+        assertEquals(List.of(ladder.getId(), drill.getId()), own.stream().map(ItemRequestDto::getId).toList());
+        assertTrue(own.getFirst().getItems().isEmpty());
+        assertEquals(List.of(fixtures.name("drill one"), fixtures.name("drill two")), own.get(1).getItems().stream()
+                .map(ItemAnswerDto::name)
+                .toList());
+        assertEquals(2, itemRequestService.getRequest(ownerId, drill.getId()).getItems().size());
+    }
+
+    @Test
+    void clientSuppliedIdIsIgnored() {
+        ItemRequestDto drill = itemRequestService.addRequest(requestorId, request(fixtures.name("drill")));
+
+        ItemRequestDto ladder = itemRequestService.addRequest(ownerId, ItemRequestDto.builder()
+                .id(drill.getId())
+                .description(fixtures.name("ladder"))
+                .build());
+
+        assertNotEquals(drill.getId(), ladder.getId());
+        assertEquals(drill.getDescription(), itemRequestService.getRequest(requestorId, drill.getId()).getDescription());
+        assertEquals(List.of(drill.getId()), itemRequestService.getOwnRequests(requestorId).stream()
+                .map(ItemRequestDto::getId)
+                .toList());
+    }
+
+    @Test
+    void otherRequestsArePagedByKeyset() {
+        List<Long> created = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            created.addFirst(itemRequestService.addRequest(requestorId, request(fixtures.name("request" + i))).getId());
+        }
+        itemRequestService.addRequest(ownerId, request(fixtures.name("own")));
+
+        List<Long> seen = new ArrayList<>();
+        KeysetCursor cursor = null;
+        while (seen.size() < created.size()) {
+            List<ItemRequestDto> page = itemRequestService.getOtherRequests(ownerId, 2, cursor);
+            page.forEach(request -> seen.add(request.getId()));
+            ItemRequestDto last = page.getLast();
+            cursor = new KeysetCursor(last.getCreated(), last.getId());
+        }
+
+        assertEquals(created, seen.subList(0, created.size()));
+    }
+
+    private void addAnswer(ItemRequestDto request, String name) {
+        itemService.addItem(ownerId, new ItemDto(null, fixtures.name(name), "An answer", true, request.getId()));
+    }
+
+    private static ItemRequestDto request(String description) {
+        return ItemRequestDto.builder().description(description).build();
+    }
+}
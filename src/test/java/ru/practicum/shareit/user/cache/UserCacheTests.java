@@ -0,0 +1,120 @@
+package ru.practicum.shareit.user.cache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class UserCacheTests {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final UserCache userCache = new UserCache(
+            new UserCacheProperties(100, Duration.ofMinutes(10), Duration.ofSeconds(30)), meterRegistry);
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @Test
+    void missLoadsTheUserAndHitServesItWithoutLoading() {
+        assertEquals("first", userCache.get(3L, id -> load(user(id, "first"))).orElseThrow().getName());
+        assertEquals("first", userCache.get(3L, id -> load(user(id, "second"))).orElseThrow().getName());
+
+        assertEquals(1, loads.get());
+        assertEquals(1.0, meterRegistry.get("cache.gets").tag("cache", "users").tag("result", "hit")
+                .functionCounter().count());
+        assertEquals(1.0, meterRegistry.get("cache.gets").tag("cache", "users").tag("result", "miss")
+                .functionCounter().count());
+    }
+
+    @Test
+    void unknownUserIsCachedAsEmptyForTheNegativeTtl() throws Exception {
+        UserCache shortNegativeTtl = new UserCache(
+                new UserCacheProperties(100, Duration.ofMinutes(10), Duration.ofMillis(200)), new SimpleMeterRegistry());
+
+        assertFalse(shortNegativeTtl.get(4L, id -> load(null)).isPresent());
+        assertFalse(shortNegativeTtl.get(4L, id -> load(user(id, "created"))).isPresent());
+        assertEquals(1, loads.get());
+
+        TimeUnit.MILLISECONDS.sleep(400);
+
+        assertEquals("created", shortNegativeTtl.get(4L, id -> load(user(id, "created"))).orElseThrow().getName());
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void invalidationMakesTheNextGetLoadAgain() {
+        userCache.get(5L, id -> load(user(id, "before")));
+
+        userCache.invalidate(5L);
+
+        assertEquals("after", userCache.get(5L, id -> load(user(id, "after"))).orElseThrow().getName());
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void callersGetCopiesTheyCannotChangeTheCacheThrough() {
+        User first = userCache.get(6L, id -> load(user(id, "kept"))).orElseThrow();
+        first.setName("changed");
+
+        assertEquals("kept", userCache.get(6L, id -> load(user(id, "reloaded"))).orElseThrow().getName());
+    }
+
+    @Test
+    void loadRacingAnUpdateDoesNotCacheTheOldUser() throws Exception {
+        AtomicReference<String> stored = new AtomicReference<>("old");
+        CountDownLatch loaded = new CountDownLatch(1);
+        CountDownLatch updated = new CountDownLatch(1);
+
+        CompletableFuture<Optional<User>> slowRead = CompletableFuture.supplyAsync(() ->
+                userCache.get(1L, id -> {
+                    Optional<User> user = Optional.of(user(id, stored.get()));
+                    loaded.countDown();
+                    await(updated);
+                    return user;
+                }));
+        assertTrue(loaded.await(5, TimeUnit.SECONDS));
+        stored.set("new");
+        userCache.invalidate(1L);
+        updated.countDown();
+
+        assertEquals("old", slowRead.get(5, TimeUnit.SECONDS).orElseThrow().getName());
+        assertEquals("new", userCache.get(1L, id -> Optional.of(user(id, stored.get()))).orElseThrow().getName());
+    }
+
+    @Test
+    void loadWithoutConcurrentUpdateIsCached() {
+        userCache.get(2L, id -> Optional.of(user(id, "cached")));
+
+        assertEquals("cached", userCache.get(2L, id -> Optional.of(user(id, "reloaded"))).orElseThrow().getName());
+    }
+
+    private Optional<User> load(User user) {
+        loads.incrementAndGet();
+        return Optional.ofNullable(user);
+    }
+
+    private static User user(long id, String name) {
+        User user = new User();
+        user.setId(id);
+        user.setName(name);
+        user.setEmail(name + "@example.com");
+        return user;
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}